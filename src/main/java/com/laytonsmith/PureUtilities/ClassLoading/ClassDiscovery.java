@@ -6,9 +6,11 @@ import com.laytonsmith.PureUtilities.ClassLoading.ClassMirror.FieldMirror;
 import com.laytonsmith.PureUtilities.ClassLoading.ClassMirror.MethodMirror;
 import com.laytonsmith.PureUtilities.Common.ClassUtils;
 import com.laytonsmith.PureUtilities.Common.FileUtil;
+import com.laytonsmith.PureUtilities.Common.StreamUtils;
 import com.laytonsmith.PureUtilities.Common.StringUtils;
 import com.laytonsmith.PureUtilities.ProgressIterator;
 import com.laytonsmith.PureUtilities.ZipIterator;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -28,6 +30,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -155,6 +163,11 @@ public class ClassDiscovery {
 	 */
 	private ClassDiscoveryCache classDiscoveryCache;
 
+	/**
+	 * Incremented whenever the known classes may have changed, see {@link #getGeneration()}.
+	 */
+	private volatile int generation = 0;
+
 	/**
 	 * Turns debug mode on. If true, data about what is happening is printed out,
 	 * as well as timing information.
@@ -277,14 +290,6 @@ public class ClassDiscovery {
 				url = StringUtils.replaceLast(url, "!/", "");
 			}
 			if (url.startsWith("file:") && !url.endsWith(".jar")) {
-				final AtomicInteger id = new AtomicInteger(0);
-//				ExecutorService service = Executors.newFixedThreadPool(10, new ThreadFactory() {
-//					@Override
-//					public Thread newThread(Runnable r) {
-//						return new Thread(r, "ClassDiscovery-Async-" + id.incrementAndGet());
-//					}
-//				});
-
 				//Remove file: from the front
 				String root = url.substring(5);
 				rootLocationFile = new File(root);
@@ -293,57 +298,46 @@ public class ClassDiscovery {
 
 				//Now, we have all the class files in the package. But, it's the absolute path
 				//to all of them. We have to first remove the "front" part
-				for (File f : fileList) {
-					String file = f.toString();
-					if (!file.matches(".*\\$(?:\\d)*\\.class") && file.endsWith(".class")) {
-						InputStream stream = null;
-						try {
-							stream = FileUtil.readAsStream(new File(rootLocationFile,
-									f.getAbsolutePath().replaceFirst(Pattern.quote(new File(root).getAbsolutePath() + File.separator), "")));
-							ClassMirror cm = new ClassMirror(stream, new URL(url));
-							mirrors.add(cm);
-						} catch (IOException ex) {
-							Logger.getLogger(ClassDiscovery.class.getName()).log(Level.SEVERE, null, ex);
-						} finally {
-							if (stream != null) {
-								try {
-									stream.close();
-								} catch (IOException ex) {
-									Logger.getLogger(ClassDiscovery.class.getName()).log(Level.SEVERE, null, ex);
-								}
-							}
+				ParallelParser parser = new ParallelParser();
+				try {
+					URL container = new URL(url);
+					for (File f : fileList) {
+						String file = f.toString();
+						if (!ANONYMOUS_CLASS.matcher(file).matches() && file.endsWith(".class")) {
+							parser.parse(new File(rootLocationFile,
+									f.getAbsolutePath().replaceFirst(Pattern.quote(new File(root).getAbsolutePath() + File.separator), "")), container);
 						}
 					}
+				} catch (MalformedURLException ex) {
+					Logger.getLogger(ClassDiscovery.class.getName()).log(Level.SEVERE, null, ex);
+				} finally {
+					parser.finish(mirrors);
 				}
-//				service.shutdown();
-//				try {
-//					//Doesn't look like 0 is an option, so we'll just wait a day.
-//					service.awaitTermination(1, TimeUnit.DAYS);
-//				} catch (InterruptedException ex) {
-//					Logger.getLogger(ClassDiscovery.class.getName()).log(Level.SEVERE, null, ex);
-//				}
 			} else if (url.startsWith("file:") && url.endsWith(".jar")) {
 				//We are running from a jar
 				url = url.replaceFirst("file:", "");
 				rootLocationFile = new File(url);
 				ZipIterator zi = new ZipIterator(rootLocationFile);
+				final ParallelParser parser = new ParallelParser();
 				try {
+					final URL container = rootLocationFile.toURI().toURL();
+					//Entries have to be read in order, but they can be parsed in parallel
 					zi.iterate(new ZipIterator.ZipIteratorCallback() {
 						@Override
 						public void handle(String filename, InputStream in) {
-							if (!filename.matches(".*\\$(?:\\d)*\\.class") && filename.endsWith(".class")) {
+							if (!ANONYMOUS_CLASS.matcher(filename).matches() && filename.endsWith(".class")) {
 								try {
-									ClassMirror cm = new ClassMirror(in, rootLocationFile.toURI().toURL());
-									mirrors.add(cm);
+									parser.parse(StreamUtils.GetBytes(in), container);
 								} catch (IOException ex) {
 									Logger.getLogger(ClassDiscovery.class.getName()).log(Level.SEVERE, null, ex);
 								}
-
 							}
 						}
 					}, progressIterator);
 				} catch (IOException ex) {
 					Logger.getLogger(ClassDiscovery.class.getName()).log(Level.SEVERE, null, ex);
+				} finally {
+					parser.finish(mirrors);
 				}
 			} else {
 				throw new RuntimeException("Unknown url type: " + rootLocation);
@@ -354,6 +348,94 @@ public class ClassDiscovery {
 			}
 		}
 	}
+
+	/**
+	 * Anonymous classes are skipped during discovery.
+	 */
+	private static final Pattern ANONYMOUS_CLASS = Pattern.compile(".*\\$(?:\\d)*\\.class");
+
+	/**
+	 * The number of threads used to parse classes during discovery.
+	 */
+	private static final int PARSE_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * Parses class files into ClassMirrors on a pool of threads. Parsing each class is
+	 * independent, and for large jars, is where most of the discovery time goes.
+	 */
+	private static class ParallelParser {
+
+		private final ExecutorService service;
+		private final List<Future<ClassMirror<?>>> results = new ArrayList<>();
+
+		public ParallelParser() {
+			final AtomicInteger id = new AtomicInteger(0);
+			service = Executors.newFixedThreadPool(PARSE_THREADS, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "ClassDiscovery-Async-" + id.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+
+		/**
+		 * Reads in and parses the class file.
+		 */
+		public void parse(final File file, final URL container) {
+			results.add(service.submit(new Callable<ClassMirror<?>>() {
+				@Override
+				public ClassMirror<?> call() throws Exception {
+					try (InputStream stream = FileUtil.readAsStream(file)) {
+						return new ClassMirror<>(stream, container);
+					}
+				}
+			}));
+		}
+
+		/**
+		 * Parses the already read in class file.
+		 */
+		public void parse(final byte[] data, final URL container) {
+			results.add(service.submit(new Callable<ClassMirror<?>>() {
+				@Override
+				public ClassMirror<?> call() throws Exception {
+					return new ClassMirror<>(new ByteArrayInputStream(data), container);
+				}
+			}));
+		}
+
+		/**
+		 * Waits for all the classes to be parsed, and adds them to the given set. Classes
+		 * that couldn't be read are logged and skipped, as they would be if parsed
+		 * serially.
+		 */
+		public void finish(Set<ClassMirror<?>> mirrors) {
+			service.shutdown();
+			try {
+				for (Future<ClassMirror<?>> result : results) {
+					try {
+						mirrors.add(result.get());
+					} catch (ExecutionException ex) {
+						Throwable cause = ex.getCause();
+						if (cause instanceof RuntimeException) {
+							throw (RuntimeException) cause;
+						} else if (cause instanceof Error) {
+							throw (Error) cause;
+						}
+						Logger.getLogger(ClassDiscovery.class.getName()).log(Level.SEVERE, null, cause);
+					}
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				Logger.getLogger(ClassDiscovery.class.getName()).log(Level.SEVERE, null, ex);
+			} finally {
+				service.shutdownNow();
+			}
+		}
+	}
+
 	private ClassLoader defaultClassLoader = null;
 
 	/**
@@ -398,6 +480,18 @@ public class ClassDiscovery {
 		urlCache.add(url);
 		dirtyURLs.add(url);
 		classCache.put(url, new HashSet<ClassMirror<?>>());
+		generation++;
+	}
+
+	/**
+	 * Returns a number that changes whenever the known classes may have changed,
+	 * that is, when a discovery location is added or removed, or the caches are
+	 * invalidated. Code that caches data derived from this instance can store
+	 * the generation along with it, and rebuild the data once the generation differs.
+	 * @return
+	 */
+	public int getGeneration(){
+		return generation;
 	}
 
 	/**
@@ -459,6 +553,7 @@ public class ClassDiscovery {
 		fieldAnnotationCache.clear();
 		methodAnnotationCache.clear();
 		dirtyURLs.addAll(urlCache);
+		generation++;
 	}
 
 	/**
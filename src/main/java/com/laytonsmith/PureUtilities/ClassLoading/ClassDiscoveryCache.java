@@ -37,9 +37,10 @@ public class ClassDiscoveryCache {
 	public static final String OUTPUT_FILENAME = "jarInfo.ser";
 	
 	/**
-	 * How much of the file we read in to hash to check for collisions.
+	 * How much of the file we read in at a time to hash. The whole file is hashed,
+	 * so that a jar that has changed never uses the cache of a previous version.
 	 */
-	private static final int READ_SIZE = 2048;
+	private static final int READ_SIZE = 8192;
 
 	private File cacheDir;
 	private ProgressIterator progress;
@@ -83,15 +84,15 @@ public class ClassDiscoveryCache {
 			try {
 				File jarFile = new File(URLDecoder.decode(fromClassLocation.getFile(), "UTF8"));
 				
-				byte[] data;
+				MessageDigest digest = java.security.MessageDigest.getInstance("MD5");
 				try (FileInputStream fis = new FileInputStream(jarFile)) {
-					data = new byte[READ_SIZE];
-					fis.read(data);
+					byte[] data = new byte[READ_SIZE];
+					int read;
+					while((read = fis.read(data)) != -1){
+						digest.update(data, 0, read);
+					}
 				}
 				
-				MessageDigest digest = java.security.MessageDigest.getInstance("MD5");
-				digest.update(data);
-				
 				String fileName = StringUtils.toHex(digest.digest());
 				cacheOutputName = new File(cacheDir, fileName);
 				if(cacheOutputName.exists()){
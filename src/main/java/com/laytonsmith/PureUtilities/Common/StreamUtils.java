@@ -2,13 +2,12 @@ package com.laytonsmith.PureUtilities.Common;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Streams are hard sometimes. This class abstracts most of the functionality
@@ -89,13 +88,13 @@ public class StreamUtils {
 	 * @throws IOException 
 	 */
 	public static byte[] GetBytes(InputStream in) throws IOException {
-		BufferedInputStream bis = new BufferedInputStream(in);
-		List<Byte> bytes = new ArrayList<Byte>();
-		int i;
-		while((i = bis.read()) != -1){
-			bytes.add(((byte)i));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while((read = in.read(buffer)) != -1){
+			bytes.write(buffer, 0, read);
 		}
-		return ArrayUtils.unbox(bytes.toArray(new Byte[bytes.size()]));
+		return bytes.toByteArray();
 	}
 	
 	/**
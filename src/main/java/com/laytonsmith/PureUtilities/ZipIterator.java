@@ -53,6 +53,20 @@ public class ZipIterator {
 						return zis.read();
 					}
 
+					@Override
+					public int read(byte[] b, int off, int len) throws IOException {
+						//Reading a byte at a time out of the zip is very slow, so support bulk reads
+						int read = zis.read(b, off, len);
+						if(progressIterator != null && read > 0){
+							long before = (long) soFar / 128;
+							soFar += read;
+							if((long) soFar / 128 != before){
+								progressIterator.progressChanged(soFar, size);
+							}
+						}
+						return read;
+					}
+
 					@Override
 					public void close() throws IOException {
 						//Do nothing, we will close this later, ourselves.
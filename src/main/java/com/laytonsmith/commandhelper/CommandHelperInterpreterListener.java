@@ -9,7 +9,6 @@ import com.laytonsmith.abstraction.enums.MCChatColor;
 import com.laytonsmith.core.CHLog;
 import com.laytonsmith.core.MethodScriptCompiler;
 import com.laytonsmith.core.MethodScriptComplete;
-import com.laytonsmith.core.MethodScriptFileLocations;
 import com.laytonsmith.core.ParseTree;
 import com.laytonsmith.core.Static;
 import com.laytonsmith.core.constructs.Target;
@@ -22,7 +21,6 @@ import com.laytonsmith.core.exceptions.ConfigCompileException;
 import com.laytonsmith.core.exceptions.ConfigRuntimeException;
 import com.laytonsmith.core.Profiles;
 import com.laytonsmith.core.exceptions.ConfigCompileGroupException;
-import com.laytonsmith.core.taskmanager.TaskManager;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
@@ -152,8 +150,8 @@ public class CommandHelperInterpreterListener implements Listener {
 			gEnv = new GlobalEnv(plugin.executionQueue, plugin.profiler,
 					plugin.persistenceNetwork, plugin.permissionsResolver,
 					CommandHelperFileLocations.getDefault().getConfigDirectory(),
-					new Profiles(MethodScriptFileLocations.getDefault().getSQLProfilesFile()),
-					new TaskManager());
+					CommandHelperPlugin.getCore().getProfiles(),
+					CommandHelperPlugin.getCore().getTaskManager());
 		} catch (IOException ex) {
 			CHLog.GetLogger().e(CHLog.Tags.GENERAL, ex.getMessage(), Target.UNKNOWN);
 			return;
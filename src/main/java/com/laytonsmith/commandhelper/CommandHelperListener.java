@@ -165,6 +165,7 @@ public class CommandHelperListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         UserManager.ClearUser(player.getName());
+        Static.ClearPermissionCache(player.getName());
     }
 
     @EventHandler(priority= EventPriority.NORMAL)
@@ -50,6 +50,13 @@ import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
@@ -71,6 +78,22 @@ public class AliasCore {
 	private File mainFile;
 	//AliasConfig config;
 	private List<Script> scripts;
+	/**
+	 * The index of the global aliases, which is rebuilt when the aliases change.
+	 */
+	private volatile AliasIndex aliasIndex;
+	/**
+	 * The parsed SQL profiles, which are shared by every alias run until the profiles
+	 * file changes, or the aliases are reloaded.
+	 */
+	private Profiles profiles;
+	private long profilesModified;
+	private long profilesLength;
+	/**
+	 * The TaskManager shared by every alias run. It is replaced when the tasks are
+	 * cleared during a reload.
+	 */
+	private volatile TaskManager taskManager = new TaskManager();
 	static final Logger logger = Logger.getLogger("Minecraft");
 	private Set<String> echoCommand = new HashSet<String>();
 	private PermissionsResolver perms;
@@ -101,6 +124,46 @@ public class AliasCore {
 		return new ArrayList<Script>(scripts);
 	}
 
+	/**
+	 * Returns the SQL profiles. The profiles file is only parsed again if it has
+	 * changed since it was last read, so this does not need to read the file
+	 * for each command.
+	 *
+	 * @return
+	 * @throws IOException
+	 * @throws Profiles.InvalidProfileException
+	 */
+	public synchronized Profiles getProfiles() throws IOException, Profiles.InvalidProfileException {
+		File file = MethodScriptFileLocations.getDefault().getSQLProfilesFile();
+		long modified = file.lastModified();
+		long length = file.length();
+		if (profiles == null || modified != profilesModified || length != profilesLength) {
+			profiles = new Profiles(file);
+			profilesModified = modified;
+			profilesLength = length;
+		}
+		return profiles;
+	}
+
+	/**
+	 * Returns the TaskManager that is shared by all the scripts.
+	 *
+	 * @return
+	 */
+	public TaskManager getTaskManager() {
+		return taskManager;
+	}
+
+	private AliasIndex getAliasIndex() {
+		boolean caseSensitive = Prefs.CaseSensitive();
+		AliasIndex index = aliasIndex;
+		if (index == null || !index.isFor(scripts, caseSensitive)) {
+			index = new AliasIndex(scripts, caseSensitive);
+			aliasIndex = index;
+		}
+		return index;
+	}
+
 	/**
 	 * This is the workhorse function. It takes a given command, then converts
 	 * it into the actual command(s). If the command maps to a defined alias, it
@@ -118,8 +181,7 @@ public class AliasCore {
 			gEnv = new GlobalEnv(parent.executionQueue, parent.profiler,
 					parent.persistenceNetwork, parent.permissionsResolver,
 					MethodScriptFileLocations.getDefault().getConfigDirectory(),
-					new Profiles(MethodScriptFileLocations.getDefault().getSQLProfilesFile()),
-					new TaskManager());
+					getProfiles(), taskManager);
 		} catch (IOException ex) {
 			Logger.getLogger(AliasCore.class.getName()).log(Level.SEVERE, null, ex);
 			return false;
@@ -147,10 +209,11 @@ public class AliasCore {
 				return false;
 			}
 
+			String[] words = command.split(" ");
 			//Global aliases override personal ones, so check the list first
-			for (Script s : scripts) {
+			for (Script s : getAliasIndex().getCandidates(words)) {
 				try {
-					if (s.match(command)) {
+					if (s.match(words)) {
 						this.addPlayerReference(player);
 						if (Prefs.ConsoleLogCommands() && s.doLog()) {
 							StringBuilder b = new StringBuilder("CH: Running original command ");
@@ -164,7 +227,11 @@ public class AliasCore {
 						}
 						try {
 							env.getEnv(CommandHelperEnvironment.class).SetCommand(command);
-							ProfilePoint alias = env.getEnv(GlobalEnv.class).GetProfiler().start("Global Alias - \"" + command + "\"", LogLevel.ERROR);
+							Profiler profiler = env.getEnv(GlobalEnv.class).GetProfiler();
+							//When aggregating, every run of the alias is counted together, whatever the arguments
+							ProfilePoint alias = profiler.isAggregating()
+									? profiler.start(LogLevel.ERROR, "Global Alias - ", s.getSignature())
+									: profiler.start(LogLevel.ERROR, "Global Alias - \"", command, "\"");
 							try {
 								s.run(s.getVariables(command), env, new MethodScriptComplete() {
 									@Override
@@ -227,9 +294,12 @@ public class AliasCore {
 
 							ac.compile();
 
-							if (ac.match(command)) {
+							if (ac.match(words)) {
 								Static.getAliasCore().addPlayerReference(player);
-								ProfilePoint alias = env.getEnv(GlobalEnv.class).GetProfiler().start("User Alias (" + player.getName() + ") - \"" + command + "\"", LogLevel.ERROR);
+								Profiler profiler = env.getEnv(GlobalEnv.class).GetProfiler();
+								ProfilePoint alias = profiler.isAggregating()
+										? profiler.start(LogLevel.ERROR, "User Alias - ", ac.getSignature())
+										: profiler.start(LogLevel.ERROR, "User Alias (", player.getName(), ") - \"", command, "\"");
 								try {
 									ac.run(ac.getVariables(command), env, new MethodScriptComplete() {
 										@Override
@@ -361,6 +431,8 @@ public class AliasCore {
 			}
 		}
 		try {
+			//Permissions may have been changed along with the scripts, so don't keep using old decisions
+			Static.ClearPermissionCache();
 			if (Prefs.AllowDynamicShell()) {
 				CHLog.GetLogger().Log(CHLog.Tags.GENERAL, LogLevel.WARNING, "allow-dynamic-shell is set to true in "
 						+ CommandHelperFileLocations.getDefault().getProfilerConfigFile().getName() + " you should set this to false, except during development.", Target.UNKNOWN);
@@ -400,6 +472,8 @@ public class AliasCore {
 				} finally {
 					extensionManagerStartup.stop();
 				}
+				//The cached includes are bound to the functions from the old extensions
+				IncludeCache.clearCache();
 			}
 			CHLog.GetLogger().Log(CHLog.Tags.GENERAL, LogLevel.VERBOSE, "Scripts reloading...", Target.UNKNOWN);
 			if (parent.persistenceNetwork == null || reloadPersistenceConfig) {
@@ -415,12 +489,18 @@ public class AliasCore {
 					persistenceConfigReload.stop();
 				}
 			}
+			if (reloadTimeouts) {
+				taskManager = new TaskManager();
+			}
 			GlobalEnv gEnv;
 			try {
+				synchronized (this) {
+					//Always read the profiles again on reload
+					profiles = null;
+				}
 				gEnv = new GlobalEnv(parent.executionQueue, parent.profiler, parent.persistenceNetwork, parent.permissionsResolver,
 						MethodScriptFileLocations.getDefault().getConfigDirectory(),
-						new Profiles(MethodScriptFileLocations.getDefault().getSQLProfilesFile()),
-						new TaskManager());
+						getProfiles(), taskManager);
 			} catch (Profiles.InvalidProfileException ex) {
 				CHLog.GetLogger().e(CHLog.Tags.GENERAL, ex.getMessage(), Target.UNKNOWN);
 				return;
@@ -494,7 +574,7 @@ public class AliasCore {
 				} finally {
 					runningExtensionHooks.stop();
 				}
-				IncludeCache.clearCache(); //Clear the include cache, so it re-pulls files
+				IncludeCache.invalidateChanged(); //Drop the includes that have changed, so they are compiled again
 				Static.getServer().getMessenger().closeAllChannels(); // Close all channel messager channels registered by CH.
 
 				scripts = new ArrayList<Script>();
@@ -695,16 +775,147 @@ public class AliasCore {
 			ms.add(new FileInfo(s, path));
 		}
 
-		public void compileMSA(List<Script> scripts, MCPlayer player) {
+		/**
+		 * The aliases in an msa file, along with the exception thrown while compiling
+		 * each one, or null if it compiled.
+		 */
+		private static class CompiledMSA {
+			List<Script> scripts;
+			List<Exception> errors = new ArrayList<Exception>();
+		}
 
-			for (FileInfo fi : msa) {
-				List<Script> tempScripts;
-				try {
-					tempScripts = MethodScriptCompiler.preprocess(MethodScriptCompiler.lex(fi.contents, fi.file, false));
-					for (Script s : tempScripts) {
+		/**
+		 * Creates the executor used to lex and compile files in parallel. Files are
+		 * independent of each other until they are executed, so only the compilation
+		 * is done in parallel, and the results are always used in file order, so errors
+		 * and warnings are reported in the same order as before, and main files are still
+		 * executed one at a time.
+		 */
+		private static ExecutorService newCompileService() {
+			final AtomicInteger id = new AtomicInteger(0);
+			return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "CommandHelper-Compiler-" + id.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+
+		/**
+		 * The result of a compile task, along with anything it logged. Warnings are logged
+		 * while compiling, so they are buffered on the compile thread, and replayed when the
+		 * result is used, which keeps them in file order, along with the errors.
+		 */
+		private static class Compiled<T> {
+			T result;
+			Exception error;
+			List<CHLog.LogMessage> log;
+		}
+
+		/**
+		 * Submits the task to the compile service, buffering anything it logs.
+		 */
+		private static <T> Future<Compiled<T>> submit(ExecutorService service, final Callable<T> task) {
+			return service.submit(new Callable<Compiled<T>>() {
+				@Override
+				public Compiled<T> call() {
+					Compiled<T> ret = new Compiled<T>();
+					CHLog.StartBuffering();
+					try {
+						ret.result = task.call();
+					} catch (Exception e) {
+						ret.error = e;
+					} finally {
+						ret.log = CHLog.StopBuffering();
+					}
+					return ret;
+				}
+			});
+		}
+
+		/**
+		 * Waits for the result, logs anything that was logged while computing it, and
+		 * re-throws anything thrown while computing it.
+		 */
+		private static <T> T getResult(Future<Compiled<T>> future) throws ConfigCompileException, ConfigCompileGroupException {
+			Compiled<T> compiled;
+			try {
+				compiled = future.get();
+			} catch (InterruptedException ex) {
+				throw new RuntimeException(ex);
+			} catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new RuntimeException(cause);
+			}
+			CHLog.GetLogger().Replay(compiled.log);
+			Exception error = compiled.error;
+			if (error == null) {
+				return compiled.result;
+			} else if (error instanceof ConfigCompileException) {
+				throw (ConfigCompileException) error;
+			} else if (error instanceof ConfigCompileGroupException) {
+				throw (ConfigCompileGroupException) error;
+			} else if (error instanceof RuntimeException) {
+				throw (RuntimeException) error;
+			}
+			throw new RuntimeException(error);
+		}
+
+		public void compileMSA(List<Script> scripts, MCPlayer player) {
+			ExecutorService service = newCompileService();
+			try {
+				List<Future<Compiled<CompiledMSA>>> compiled = new ArrayList<Future<Compiled<CompiledMSA>>>();
+				for (final FileInfo fi : msa) {
+					compiled.add(submit(service, new Callable<CompiledMSA>() {
+						@Override
+						public CompiledMSA call() throws Exception {
+							CompiledMSA ret = new CompiledMSA();
+							ret.scripts = MethodScriptCompiler.preprocess(MethodScriptCompiler.lex(fi.contents, fi.file, false));
+							for (Script s : ret.scripts) {
+								try {
+									s.compile();
+									ret.errors.add(null);
+								} catch (ConfigCompileException | ConfigCompileGroupException e) {
+									ret.errors.add(e);
+								} catch (RuntimeException e) {
+									//Nothing after this in the file is processed
+									ret.errors.add(e);
+									break;
+								}
+							}
+							return ret;
+						}
+					}));
+				}
+				for (int i = 0; i < msa.size(); i++) {
+					FileInfo fi = msa.get(i);
+					CompiledMSA tempScripts;
+					try {
+						tempScripts = getResult(compiled.get(i));
+					} catch (ConfigCompileException e) {
+						ConfigRuntimeException.HandleUncaughtException(e, "Could not compile file " + fi.file + " compilation will halt.", player);
+						return;
+					} catch (ConfigCompileGroupException e) {
+						//Not thrown by preprocess
+						throw new Error(e);
+					}
+					for (int j = 0; j < tempScripts.errors.size(); j++) {
+						Script s = tempScripts.scripts.get(j);
+						Exception error = tempScripts.errors.get(j);
 						try {
 							try {
-								s.compile();
+								if (error instanceof ConfigCompileException) {
+									throw (ConfigCompileException) error;
+								} else if (error instanceof ConfigCompileGroupException) {
+									throw (ConfigCompileGroupException) error;
+								} else if (error instanceof RuntimeException) {
+									throw (RuntimeException) error;
+								}
 								s.checkAmbiguous((ArrayList<Script>) scripts);
 								scripts.add(s);
 							} catch (ConfigCompileException e) {
@@ -720,10 +931,9 @@ public class AliasCore {
 									+ " is available, unfortunately.)", ee);
 						}
 					}
-				} catch (ConfigCompileException e) {
-					ConfigRuntimeException.HandleUncaughtException(e, "Could not compile file " + fi.file + " compilation will halt.", player);
-					return;
 				}
+			} finally {
+				service.shutdownNow();
 			}
 			int errors = 0;
 			for (Script s : scripts) {
@@ -745,12 +955,42 @@ public class AliasCore {
 		}
 
 		public void compileMS(MCPlayer player, Environment env) {
-			for (FileInfo fi : ms) {
+			ExecutorService service = newCompileService();
+			List<Future<Compiled<ParseTree>>> compiled = new ArrayList<Future<Compiled<ParseTree>>>();
+			for (final FileInfo fi : ms) {
+				compiled.add(submit(service, new Callable<ParseTree>() {
+					@Override
+					public ParseTree call() throws Exception {
+						return MethodScriptCompiler.compile(MethodScriptCompiler.lex(fi.contents, fi.file, true));
+					}
+				}));
+			}
+			//Executing the files has side effects, so that has to happen one at a time, in order
+			try {
+				if (!executeMS(compiled, player, env)) {
+					return;
+				}
+			} finally {
+				service.shutdownNow();
+			}
+			logger.log(Level.INFO, TermColors.YELLOW + "[CommandHelper]: MethodScript files processed" + TermColors.reset());
+			if (player != null) {
+				player.sendMessage(MCChatColor.YELLOW + "[CommandHelper]: MethodScript files processed");
+			}
+		}
+
+		/**
+		 * Executes the compiled main files, and returns false if execution was halted due
+		 * to a failure.
+		 */
+		private boolean executeMS(List<Future<Compiled<ParseTree>>> compiled, MCPlayer player, Environment env) {
+			for (int i = 0; i < ms.size(); i++) {
+				FileInfo fi = ms.get(i);
 				boolean exception = false;
 				try {
 					env.getEnv(CommandHelperEnvironment.class).SetCommandSender(Static.getServer().getConsole());
 					MethodScriptCompiler.registerAutoIncludes(env, null);
-					MethodScriptCompiler.execute(MethodScriptCompiler.compile(MethodScriptCompiler.lex(fi.contents, fi.file, true)), env, null, null);
+					MethodScriptCompiler.execute(getResult(compiled.get(i)), env, null, null);
 				} catch (ConfigCompileGroupException e){
 					exception = true;
 					ConfigRuntimeException.HandleUncaughtException(e, fi.file.getAbsolutePath() + " could not be compiled, due to compile errors.", player);
@@ -773,14 +1013,11 @@ public class AliasCore {
 				if (exception) {
 					if (Prefs.HaltOnFailure()) {
 						logger.log(Level.SEVERE, TermColors.RED + "[CommandHelper]: Compilation halted due to unrecoverable failure." + TermColors.reset());
-						return;
+						return false;
 					}
 				}
 			}
-			logger.log(Level.INFO, TermColors.YELLOW + "[CommandHelper]: MethodScript files processed" + TermColors.reset());
-			if (player != null) {
-				player.sendMessage(MCChatColor.YELLOW + "[CommandHelper]: MethodScript files processed");
-			}
+			return true;
 		}
 	}
 
@@ -0,0 +1,112 @@
+package com.laytonsmith.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the global aliases, so that a command only has to be checked against
+ * the aliases that could possibly match it. The aliases are stored in a trie, keyed
+ * on the literal words at the start of their signature (typically just the command,
+ * but "/cmd sub $arg" is stored under /cmd, then sub), and a command can only match
+ * the aliases stored along the path of its own leading words.
+ */
+final class AliasIndex {
+
+	private static class Node {
+
+		final Map<String, Node> children = new HashMap<String, Node>();
+		/**
+		 * The positions, in the original list, of the aliases whose leading literals end here.
+		 */
+		final List<Integer> aliases = new ArrayList<Integer>();
+	}
+
+	private final List<Script> scripts;
+	private final int size;
+	private final boolean caseSensitive;
+	private final Node root = new Node();
+
+	/**
+	 * Builds an index of the given aliases.
+	 * @param scripts The aliases, which should already be compiled
+	 * @param caseSensitive Whether or not the literals are matched case sensitively
+	 */
+	public AliasIndex(List<Script> scripts, boolean caseSensitive) {
+		this.scripts = scripts;
+		this.size = scripts.size();
+		this.caseSensitive = caseSensitive;
+		for (int i = 0; i < size; i++) {
+			List<String> literals = scripts.get(i).getLeadingLiterals();
+			if (literals == null) {
+				//Can't match anything
+				continue;
+			}
+			Node node = root;
+			for (String literal : literals) {
+				String key = normalize(literal);
+				Node child = node.children.get(key);
+				if (child == null) {
+					child = new Node();
+					node.children.put(key, child);
+				}
+				node = child;
+			}
+			node.aliases.add(i);
+		}
+	}
+
+	/**
+	 * Returns true if this index is still valid for the given list of aliases.
+	 * @param scripts
+	 * @param caseSensitive
+	 * @return
+	 */
+	public boolean isFor(List<Script> scripts, boolean caseSensitive) {
+		return this.scripts == scripts && this.size == scripts.size() && this.caseSensitive == caseSensitive;
+	}
+
+	/**
+	 * Returns the aliases that could match the command, in the order they were
+	 * defined in, so the first one that actually matches is the same one that would
+	 * have been found by checking every alias.
+	 * @param cmds The command, split into words with command.split(" ")
+	 * @return
+	 */
+	public List<Script> getCandidates(String[] cmds) {
+		List<Integer> found = new ArrayList<Integer>();
+		Node node = root;
+		found.addAll(node.aliases);
+		for (String cmd : cmds) {
+			node = node.children.get(normalize(cmd));
+			if (node == null) {
+				break;
+			}
+			found.addAll(node.aliases);
+		}
+		Collections.sort(found);
+		List<Script> candidates = new ArrayList<Script>(found.size());
+		for (int i : found) {
+			candidates.add(scripts.get(i));
+		}
+		return candidates;
+	}
+
+	/**
+	 * Returns the key for the word. When not case sensitive, two words have the same key
+	 * exactly when they are equalsIgnoreCase, which compares each character after converting
+	 * it to upper case, then lower case.
+	 */
+	private String normalize(String word) {
+		if (caseSensitive) {
+			return word;
+		}
+		char[] chars = word.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+		return new String(chars);
+	}
+}
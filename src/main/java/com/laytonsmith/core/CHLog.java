@@ -70,6 +70,10 @@ public final class CHLog {
     
 	private static File root = null;
 	private static CHLog instance = null;
+	/**
+	 * The messages logged on each thread, while that thread is buffering.
+	 */
+	private static final ThreadLocal<List<LogMessage>> buffer = new ThreadLocal<List<LogMessage>>();
     
 	public static CHLog GetLogger(){
 		if(root == null){
@@ -271,6 +275,11 @@ public final class CHLog {
 	 * @param printScreen 
      */
     public void Log(Tags modules, LogLevel level, String message, Target t, boolean printScreen){
+        List<LogMessage> buffered = buffer.get();
+        if(buffered != null){
+            buffered.add(new LogMessage(modules, level, message, t, printScreen));
+            return;
+        }
         LogLevel moduleLevel = GetLevel(modules);
         if(moduleLevel == LogLevel.OFF && !Prefs.ScreamErrors()){
             return; //Bail as quick as we can!
@@ -293,6 +302,55 @@ public final class CHLog {
     
     
     
+    /**
+     * Starts buffering the messages logged on the current thread, rather than writing them
+     * out. This is useful when work is done on a background thread, but the messages should
+     * appear in a particular order. {@link #StopBuffering()} must be called in a finally block.
+     */
+    public static void StartBuffering(){
+        buffer.set(new ArrayList<LogMessage>());
+    }
+
+    /**
+     * Stops buffering the messages logged on the current thread, and returns the messages
+     * that were logged since {@link #StartBuffering()}, which can be passed to {@link #Replay(java.util.List)}.
+     * @return
+     */
+    public static List<LogMessage> StopBuffering(){
+        List<LogMessage> messages = buffer.get();
+        buffer.remove();
+        return messages == null ? new ArrayList<LogMessage>() : messages;
+    }
+
+    /**
+     * Logs the buffered messages, in the order they were originally logged.
+     * @param messages
+     */
+    public void Replay(List<LogMessage> messages){
+        for(LogMessage m : messages){
+            Log(m.module, m.level, m.message, m.t, m.printScreen);
+        }
+    }
+
+    /**
+     * A message that was logged while buffering was enabled.
+     */
+    public static final class LogMessage{
+        private final Tags module;
+        private final LogLevel level;
+        private final String message;
+        private final Target t;
+        private final boolean printScreen;
+
+        private LogMessage(Tags module, LogLevel level, String message, Target t, boolean printScreen){
+            this.module = module;
+            this.level = level;
+            this.message = message;
+            this.t = t;
+            this.printScreen = printScreen;
+        }
+    }
+
     public static class MsgBundle{
         private LogLevel level;
         private String message;
@@ -82,12 +82,22 @@ public final class MethodScriptCompiler {
 		if(script.isEmpty()){
 			return new ArrayList<>();
 		}
+		int start = 0;
 		if((int)script.charAt(0) == 65279){
 			// Remove the UTF-8 Byte Order Mark, if present.
-			script = script.substring(1);
+			start = 1;
 		}
-		script = script.replaceAll("\r\n", "\n");
-		script = script + "\n";
+		//Copy the script out, turning \r\n into \n, and adding a trailing newline, in one pass
+		char[] chars = new char[script.length() - start + 1];
+		int length = 0;
+		for (int i = start; i < script.length(); i++) {
+			char c = script.charAt(i);
+			if (c == '\r' && i + 1 < script.length() && script.charAt(i + 1) == '\n') {
+				continue;
+			}
+			chars[length++] = c;
+		}
+		chars[length++] = '\n';
 		Set<String> keywords = KeywordList.getKeywordNames();
 		List<Token> token_list = new ArrayList<>();
 		//Set our state variables
@@ -107,16 +117,11 @@ public final class MethodScriptCompiler {
 		int lastColumn = 0;
 		Target target = Target.UNKNOWN;
 		//first we lex
-		for (int i = 0; i < script.length(); i++) {
-			Character c = script.charAt(i);
-			Character c2 = null;
-			Character c3 = null;
-			if (i < script.length() - 1) {
-				c2 = script.charAt(i + 1);
-			}
-			if (i < script.length() - 2) {
-				c3 = script.charAt(i + 2);
-			}
+		for (int i = 0; i < length; i++) {
+			char c = chars[i];
+			//The script always ends in a newline, so c2 and c3 are never compared past the end
+			char c2 = i < length - 1 ? chars[i + 1] : '\0';
+			char c3 = i < length - 2 ? chars[i + 2] : '\0';
 
 			column += i - lastColumn;
 			lastColumn = i;
@@ -127,7 +132,6 @@ public final class MethodScriptCompiler {
 					inCommand = true;
 				}
 			}
-			target = new Target(line_num, file, column);
 
 			//Comment handling. If we're inside a string, bypass this though
 			if (!state_in_quote && !in_smart_quote) {
@@ -160,7 +164,7 @@ public final class MethodScriptCompiler {
 						i++;
 						continue;
 					} else if (!in_comment) {
-						throw new ConfigCompileException("Unexpected block comment end", target);
+						throw new ConfigCompileException("Unexpected block comment end", new Target(line_num, file, column));
 					} //else they put it in a line comment, which is fine
 				}
 				//Line comment end
@@ -175,10 +179,18 @@ public final class MethodScriptCompiler {
 			if (in_comment) {
 				continue;
 			}
+			//Most characters are just part of a string or a literal, so skip all the symbol checks
+			//for those, and only create a target for characters that might become a token.
+			if (state_in_quote ? (c != '\'' && c != '"' && c != '\\')
+					: (Character.isLetterOrDigit(c) || c == '_' || c == '@' || c == '$')) {
+				buf.append(c);
+				continue;
+			}
+			target = new Target(line_num, file, column);
 			if(c == '+' && c2 == '=' && !state_in_quote){
 				if(buf.length() > 0){
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.PLUS_ASSIGNMENT, "+=", target));
 				i++;
@@ -187,7 +199,7 @@ public final class MethodScriptCompiler {
 			if(c == '-' && c2 == '=' && !state_in_quote){
 				if(buf.length() > 0){
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.MINUS_ASSIGNMENT, "-=", target));
 				i++;
@@ -196,7 +208,7 @@ public final class MethodScriptCompiler {
 			if(c == '*' && c2 == '=' && !state_in_quote){
 				if(buf.length() > 0){
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.MULTIPLICATION_ASSIGNMENT, "*=", target));
 				i++;
@@ -206,7 +218,7 @@ public final class MethodScriptCompiler {
 			if(c == '/' && c2 == '=' && !state_in_quote){
 				if(buf.length() > 0){
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.DIVISION_ASSIGNMENT, "/=", target));
 				i++;
@@ -215,7 +227,7 @@ public final class MethodScriptCompiler {
 			if(c == '.' && c2 == '=' && !state_in_quote){
 				if(buf.length() > 0){
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.CONCAT_ASSIGNMENT, "/=", target));
 				i++;
@@ -225,7 +237,7 @@ public final class MethodScriptCompiler {
 			if (c == '-' && c2 == '>' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.DEREFERENCE, "->", target));
 				i++;
@@ -235,7 +247,7 @@ public final class MethodScriptCompiler {
 			if (c == '+' && c2 == '+' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.INCREMENT, "++", target));
 				i++;
@@ -244,7 +256,7 @@ public final class MethodScriptCompiler {
 			if (c == '-' && c2 == '-' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.DECREMENT, "--", target));
 				i++;
@@ -254,7 +266,7 @@ public final class MethodScriptCompiler {
 			if (c == '%' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.MODULO, "%", target));
 				continue;
@@ -265,7 +277,7 @@ public final class MethodScriptCompiler {
 			if (c == '*' && c2 == '*' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.EXPONENTIAL, "**", target));
 				i++;
@@ -274,7 +286,7 @@ public final class MethodScriptCompiler {
 			if (c == '*' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.MULTIPLICATION, "*", target));
 				continue;
@@ -282,7 +294,7 @@ public final class MethodScriptCompiler {
 			if (c == '+' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.PLUS, "+", target));
 				continue;
@@ -290,7 +302,7 @@ public final class MethodScriptCompiler {
 			if (c == '-' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.MINUS, "-", target));
 				continue;
@@ -299,7 +311,7 @@ public final class MethodScriptCompiler {
 			if (c == '/' && !Character.isLetter(c2) && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.DIVISION, "/", target));
 				continue;
@@ -308,7 +320,7 @@ public final class MethodScriptCompiler {
 			if (c == '>' && c2 == '=' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.GTE, ">=", target));
 				i++;
@@ -317,7 +329,7 @@ public final class MethodScriptCompiler {
 			if (c == '<' && c2 == '=' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.LTE, "<=", target));
 				i++;
@@ -327,7 +339,7 @@ public final class MethodScriptCompiler {
 			if (c == '<' && c2 == '<' && c3 == '<' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.MULTILINE_END, "<<<", target));
 				inMultiline = false;
@@ -338,7 +350,7 @@ public final class MethodScriptCompiler {
 			if (c == '>' && c2 == '>' && c3 == '>' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.MULTILINE_START, ">>>", target));
 				inMultiline = true;
@@ -349,7 +361,7 @@ public final class MethodScriptCompiler {
 			if (c == '<' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.LT, "<", target));
 				continue;
@@ -357,7 +369,7 @@ public final class MethodScriptCompiler {
 			if (c == '>' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.GT, ">", target));
 				continue;
@@ -365,7 +377,7 @@ public final class MethodScriptCompiler {
 			if (c == '=' && c2 == '=' && c3 == '=' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.STRICT_EQUALS, "===", target));
 				i++;
@@ -375,7 +387,7 @@ public final class MethodScriptCompiler {
 			if (c == '!' && c2 == '=' && c3 == '=' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.STRICT_NOT_EQUALS, "!==", target));
 				i++;
@@ -385,7 +397,7 @@ public final class MethodScriptCompiler {
 			if (c == '=' && c2 == '=' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.EQUALS, "==", target));
 				i++;
@@ -394,7 +406,7 @@ public final class MethodScriptCompiler {
 			if (c == '!' && c2 == '=' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.NOT_EQUALS, "!=", target));
 				i++;
@@ -403,7 +415,7 @@ public final class MethodScriptCompiler {
 			if (c == '&' && c2 == '&' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.LOGICAL_AND, "&&", target));
 				i++;
@@ -412,7 +424,7 @@ public final class MethodScriptCompiler {
 			if (c == '|' && c2 == '|' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.LOGICAL_OR, "||", target));
 				i++;
@@ -421,7 +433,7 @@ public final class MethodScriptCompiler {
 			if (c == '!' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.LOGICAL_NOT, "!", target));
 				continue;
@@ -429,7 +441,7 @@ public final class MethodScriptCompiler {
 			if (c == '{' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.LCURLY_BRACKET, "{", target));
 				continue;
@@ -437,7 +449,7 @@ public final class MethodScriptCompiler {
 			if (c == '}' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.RCURLY_BRACKET, "}", target));
 				continue;
@@ -446,7 +458,7 @@ public final class MethodScriptCompiler {
 //            if(c == '&' && !state_in_quote){
 //                if (buf.length() > 0) {
 //                    token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-//                    buf = new StringBuilder();
+//                    buf.setLength(0);
 //                }
 //                token_list.add(new Token(TType.BIT_AND, "&", target));
 //                continue;
@@ -454,7 +466,7 @@ public final class MethodScriptCompiler {
 //            if(c == '|' && !state_in_quote){
 //                if (buf.length() > 0) {
 //                    token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-//                    buf = new StringBuilder();
+//                    buf.setLength(0);
 //                }
 //                token_list.add(new Token(TType.BIT_OR, "|", target));
 //                continue;
@@ -462,7 +474,7 @@ public final class MethodScriptCompiler {
 //            if(c == '^' && !state_in_quote){
 //                if (buf.length() > 0) {
 //                    token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-//                    buf = new StringBuilder();
+//                    buf.setLength(0);
 //                }
 //                token_list.add(new Token(TType.BIT_XOR, "^", target));
 //                continue;
@@ -472,7 +484,7 @@ public final class MethodScriptCompiler {
 				//This one has to come before plain .
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.SLICE, "..", target));
 				i++;
@@ -482,7 +494,7 @@ public final class MethodScriptCompiler {
 				//if it's a number after this, it's a decimal
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.CONCAT, ".", target));
 				continue;
@@ -490,7 +502,7 @@ public final class MethodScriptCompiler {
 			if (c == ':' && c2 == ':' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.DEREFERENCE, "::", target));
 				i++;
@@ -499,7 +511,7 @@ public final class MethodScriptCompiler {
 			if (c == '[' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.LSQUARE_BRACKET, "[", target));
 				in_opt_var = true;
@@ -509,7 +521,7 @@ public final class MethodScriptCompiler {
 			if (c == '=' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				if(inCommand){
 					if (in_opt_var) {
@@ -526,7 +538,7 @@ public final class MethodScriptCompiler {
 			if (c == ']' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.RSQUARE_BRACKET, "]", target));
 				in_opt_var = false;
@@ -535,7 +547,7 @@ public final class MethodScriptCompiler {
 			if (c == ':' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.LABEL, ":", target));
 				continue;
@@ -543,7 +555,7 @@ public final class MethodScriptCompiler {
 			if (c == ',' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.COMMA, ",", target));
 				continue;
@@ -551,7 +563,7 @@ public final class MethodScriptCompiler {
 			if (c == '(' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.FUNC_NAME, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				} else {
 					//The previous token, if unknown, should be changed to a FUNC_NAME. If it's not
 					//unknown, we may be doing standalone parenthesis, so auto tack on the __autoconcat__ function
@@ -581,7 +593,7 @@ public final class MethodScriptCompiler {
 			if (c == ')' && !state_in_quote) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.FUNC_END, ")", target));
 				continue;
@@ -589,7 +601,7 @@ public final class MethodScriptCompiler {
 			if(c == ';' && !state_in_quote){
 				if(buf.length() > 0){
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.SEMICOLON, ";", target));
 				continue;
@@ -599,7 +611,7 @@ public final class MethodScriptCompiler {
 				//was also whitespace. All whitespace is added as a single space.
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				if (token_list.size() > 0
 						&& token_list.get(token_list.size() - 1).type != TType.WHITESPACE) {
@@ -610,7 +622,7 @@ public final class MethodScriptCompiler {
 			if (c == '\'') {
 				if (state_in_quote && !in_smart_quote) {
 					token_list.add(new Token(TType.STRING, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 					state_in_quote = false;
 					continue;
 				} else if (!state_in_quote) {
@@ -619,7 +631,7 @@ public final class MethodScriptCompiler {
 					in_smart_quote = false;
 					if (buf.length() > 0) {
 						token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-						buf = new StringBuilder();
+						buf.setLength(0);
 					}
 					continue;
 				} else {
@@ -629,7 +641,7 @@ public final class MethodScriptCompiler {
 			} else if (c == '"') {
 				if (state_in_quote && in_smart_quote) {
 					token_list.add(new Token(TType.SMART_STRING, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 					state_in_quote = false;
 					in_smart_quote = false;
 					continue;
@@ -639,7 +651,7 @@ public final class MethodScriptCompiler {
 					smartQuoteLineNumberStart = line_num;
 					if (buf.length() > 0) {
 						token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-						buf = new StringBuilder();
+						buf.setLength(0);
 					}
 					continue;
 				} else {
@@ -665,16 +677,16 @@ public final class MethodScriptCompiler {
 						buf.append("\\@");
 					} else if (c2 == 'u') {
 						//Grab the next 4 characters, and check to see if they are numbers
-						StringBuilder unicode = new StringBuilder();
-						for (int m = 0; m < 4; m++) {
-							unicode.append(script.charAt(i + 2 + m));
+						if (i + 5 >= length) {
+							throw new ConfigCompileException("Unrecognized unicode escape sequence", target);
 						}
+						String unicode = new String(chars, i + 2, 4);
 						try {
-							Integer.parseInt(unicode.toString(), 16);
+							Integer.parseInt(unicode, 16);
 						} catch (NumberFormatException e) {
 							throw new ConfigCompileException("Unrecognized unicode escape sequence", target);
 						}
-						buf.append(Character.toChars(Integer.parseInt(unicode.toString(), 16)));
+						buf.append(Character.toChars(Integer.parseInt(unicode, 16)));
 						i += 4;
 					} else {
 						//Since we might expand this list later, don't let them
@@ -694,7 +706,7 @@ public final class MethodScriptCompiler {
 			} else if (c == '\n' && !comment_is_block) {
 				if (buf.length() > 0) {
 					token_list.add(new Token(TType.UNKNOWN, buf.toString(), target));
-					buf = new StringBuilder();
+					buf.setLength(0);
 				}
 				token_list.add(new Token(TType.NEWLINE, "\n", target));
 				in_comment = false;
@@ -705,6 +717,7 @@ public final class MethodScriptCompiler {
 				continue;
 			}
 		} //end lexing
+		target = new Target(line_num, file, column);
 		if (state_in_quote) {
 			if (in_smart_quote) {
 				throw new ConfigCompileException("Unended string literal. You started the last double quote on line " + smartQuoteLineNumberStart, target);
@@ -1437,20 +1450,27 @@ public final class MethodScriptCompiler {
 	 * <ul><li>Links functions</li>
 	 * <li>Checks function arguments</li></ul>
 	 * This is a separate process from optimization, because optimization
-	 * ignores any missing functions.
+	 * ignores any missing functions. Linking binds each CFunction node directly
+	 * to its Function, so that at runtime, the eval loop doesn't need to look
+	 * the function up again.
 	 * @param tree
 	 */
 	private static void link(ParseTree tree, Set<ConfigCompileException> compilerErrors) {
 		FunctionBase treeFunction = null;
-		try {
-			treeFunction = FunctionList.getFunction(tree.getData());
-			if(treeFunction.getClass().getAnnotation(nolinking.class) != null){
-				//Don't link children of a nolinking function.
-				return;
+		if(tree.getData() instanceof CFunction && !((CFunction)tree.getData()).isProcedure()){
+			try {
+				treeFunction = FunctionList.getFunction(tree.getData());
+				if(treeFunction instanceof Function){
+					((CFunction)tree.getData()).setFunction(treeFunction);
+				}
+				if(treeFunction.getClass().getAnnotation(nolinking.class) != null){
+					//Don't link children of a nolinking function.
+					return;
+				}
+			} catch(ConfigCompileException ex){
+				//This can happen if the treeFunction doesn't exist, but that is
+				//reported by our parent, so we just want to continue.
 			}
-		} catch(ConfigCompileException ex){
-			//This can happen if the treeFunction isn't a function, is a proc, etc,
-			//but we don't care, we just want to continue.
 		}
 		// Check the argument count, and do any custom linking the function may have
 		if(treeFunction != null){
@@ -1475,7 +1495,7 @@ public final class MethodScriptCompiler {
 		for(ParseTree child : tree.getChildren()){
 			if(child.getData() instanceof CFunction){
 				FunctionBase f = null;
-				if (!child.getData().val().matches("^_[^_].*")) {
+				if (!((CFunction)child.getData()).isProcedure()) {
 					// This will throw an exception if the function doesn't exist.
 					try {
 						f = FunctionList.getFunction(child.getData());
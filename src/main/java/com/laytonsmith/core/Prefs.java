@@ -64,7 +64,8 @@ public final class Prefs {
 		ALLOW_SHELL_COMMANDS("allow-shell-commands"),
 		ALLOW_DYNAMIC_SHELL("allow-dynamic-shell"),
 		SCREAM_ERRORS("scream-errors"),
-		INTERPRETER_TIMEOUT("interpreter-timeout");
+		INTERPRETER_TIMEOUT("interpreter-timeout"),
+		PERMISSION_CACHE_TIMEOUT("permission-cache-timeout");
         private String name;
         private PNames(String name){
             this.name = name;
@@ -122,6 +123,10 @@ public final class Prefs {
 		a.add(new Preference(PNames.INTERPRETER_TIMEOUT.config(), "15", Preferences.Type.INT, "Sets the time (in minutes) that interpreter mode is unlocked for when /interpreter-on is run from console. Set to 0 (or a negative number)"
 				+ " to disable this feature, and allow interpreter mode all the time. It is highly recommended that you leave this set to some number greater than 0, to enhance"
 				+ " server security, and require a \"two step\" authentication for interpreter mode."));
+		a.add(new Preference(PNames.PERMISSION_CACHE_TIMEOUT.config(), "5000", Preferences.Type.INT, "Sets the time (in milliseconds) that the result of a permission check for a"
+				+ " restricted function is remembered for a player, so that repeated calls don't have to query the permissions plugin each time. Changes to a player's"
+				+ " permissions or groups may take up to this long to take effect, though /reloadaliases clears all remembered results immediately. Set to 0 (or a"
+				+ " negative number) to check permissions every time."));
         prefs = new Preferences("CommandHelper", Static.getLogger(), a);
         prefs.init(f);
 
@@ -323,4 +328,12 @@ public final class Prefs {
 		}
 		return i;
 	}
+
+	public static Integer PermissionCacheTimeout(){
+		Integer i = (Integer)pref(PNames.PERMISSION_CACHE_TIMEOUT);
+		if(i < 0){
+			i = 0;
+		}
+		return i;
+	}
 }
@@ -8,19 +8,13 @@ import com.laytonsmith.abstraction.Implementation;
 import com.laytonsmith.abstraction.MCCommandSender;
 import com.laytonsmith.abstraction.MCPlayer;
 import com.laytonsmith.abstraction.StaticLayer;
-import com.laytonsmith.core.constructs.CArray;
-import com.laytonsmith.core.constructs.CBoolean;
-import com.laytonsmith.core.constructs.CDouble;
-import com.laytonsmith.core.constructs.CEntry;
-import com.laytonsmith.core.constructs.CInt;
-import com.laytonsmith.core.constructs.CLabel;
-import com.laytonsmith.core.constructs.CNull;
+import com.laytonsmith.core.constructs.CFunction;
 import com.laytonsmith.core.constructs.CString;
-import com.laytonsmith.core.constructs.CVoid;
 import com.laytonsmith.core.constructs.Command;
 import com.laytonsmith.core.constructs.Construct;
 import com.laytonsmith.core.constructs.Construct.ConstructType;
 import com.laytonsmith.core.constructs.IVariable;
+import com.laytonsmith.core.constructs.IVariableList;
 import com.laytonsmith.core.constructs.Target;
 import com.laytonsmith.core.constructs.Token;
 import com.laytonsmith.core.constructs.Token.TType;
@@ -43,8 +37,8 @@ import com.laytonsmith.core.extensions.ExtensionTracker;
 import com.laytonsmith.core.functions.Exceptions.ExceptionType;
 import com.laytonsmith.core.functions.Function;
 import com.laytonsmith.core.functions.FunctionBase;
-import com.laytonsmith.core.functions.FunctionList;
 import com.laytonsmith.core.profiler.ProfilePoint;
+import com.laytonsmith.core.profiler.Profiler;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -91,7 +85,7 @@ public class Script {
     }
 
     private Procedure getProc(String name) {
-        return CurrentEnv.getEnv(GlobalEnv.class).GetProcs().get(name);
+        return CurrentEnv.getEnv(GlobalEnv.class).GetProc(name);
     }
 
     public Environment getCurrentEnv(){
@@ -263,9 +257,10 @@ public class Script {
 		//TODO: Reevaluate if this line is needed. The script doesn't know the label inherently, the
 		//environment does, and setting it this way taints the environment.
         CurrentEnv.getEnv(GlobalEnv.class).SetLabel(this.label);
-        if (m.getCType() == ConstructType.FUNCTION) {
+        if (m instanceof CFunction) {
                 env.getEnv(GlobalEnv.class).SetScript(this);
-                if (m.val().matches("^_[^_].*")) {
+                final CFunction cm = (CFunction) m;
+                if (cm.isProcedure()) {
                     //Not really a function, so we can't put it in Function.
                     Procedure p = getProc(m.val());
                     if (p == null) {
@@ -275,7 +270,7 @@ public class Script {
                     try{
                         newEnv = env.clone();
                     } catch(CloneNotSupportedException e){}
-					ProfilePoint pp = env.getEnv(GlobalEnv.class).GetProfiler().start(m.val() + " execution", LogLevel.INFO);
+					ProfilePoint pp = env.getEnv(GlobalEnv.class).GetProfiler().start(LogLevel.INFO, m.val(), " execution");
                     Construct ret;
 					try {
 						ret = p.cexecute(c.getChildren(), newEnv, m.getTarget());
@@ -286,13 +281,20 @@ public class Script {
                 }
                 final Function f;
                 try{
-                    f = (Function)FunctionList.getFunction(m);
+                    //This is normally bound by the compiler's link step, so this is just a field read
+                    f = cm.getFunction();
                 } catch(ConfigCompileException e){
                     //Turn it into a config runtime exception. This shouldn't ever happen though.
                     throw ConfigRuntimeException.CreateUncatchableException("Unable to find function " + m.val(), m.getTarget());
                 }
 
-				ArrayList<Construct> args = new ArrayList<Construct>();
+				final List<ParseTree> children = c.getChildren();
+				//The arguments as they were evaluated, which is what gets reported if something goes wrong.
+				//If the function wants variables pre-resolved, ca becomes a copy once the first IVariable
+				//is found, otherwise, the same array is passed straight through to the function.
+				//Functions that use special exec never need it, so it isn't allocated until after that.
+				Construct[] args = null;
+				int evaluated = 0;
                 try{
 					if (f.isRestricted()) {
 						boolean perm = Static.hasCHPermission(f.getName(), env);
@@ -305,11 +307,13 @@ public class Script {
 					if(f.useSpecialExec()){
 						ProfilePoint p = null;
 						if(f.shouldProfile() && env.getEnv(GlobalEnv.class).GetProfiler() != null && env.getEnv(GlobalEnv.class).GetProfiler().isLoggable(f.profileAt())){
-							p = env.getEnv(GlobalEnv.class).GetProfiler().start(f.profileMessageS(c.getChildren()), f.profileAt());
+							Profiler profiler = env.getEnv(GlobalEnv.class).GetProfiler();
+							//When aggregating, calls with different arguments should still be counted together
+							p = profiler.start(profiler.isAggregating() ? f.profileName() : f.profileMessageS(children), f.profileAt());
 						}
 						Construct ret;
 						try {
-							ret = f.execs(m.getTarget(), env, this, c.getChildren().toArray(new ParseTree[]{}));
+							ret = f.execs(m.getTarget(), env, this, children.toArray(new ParseTree[children.size()]));
 						} finally {
 							if(p != null){
 								p.stop();
@@ -318,27 +322,27 @@ public class Script {
 						return ret;
 					}
 
-					for (ParseTree c2 : c.getChildren()) {
-						args.add(eval(c2, env));
-					}
-					Object[] a = args.toArray();
-					Construct[] ca = new Construct[a.length];
-					for (int i = 0; i < a.length; i++) {
-						ca[i] = (Construct) a[i];
-						//CArray, CBoolean, CDouble, CInt, CNull, CString, CVoid, CEntry, CLabel (only to sconcat).
-						if (!(ca[i] instanceof CArray || ca[i] instanceof CBoolean || ca[i] instanceof CDouble
-								|| ca[i] instanceof CInt || ca[i] instanceof CNull
-								|| ca[i] instanceof CString || ca[i] instanceof CVoid
-								|| ca[i] instanceof IVariable || ca[i] instanceof CEntry || ca[i] instanceof CLabel)
-								&& (!f.getName().equals("__autoconcat__") && (ca[i] instanceof CLabel))) {
-							throw new ConfigRuntimeException("Invalid Construct ("
-									+ ca[i].getClass() + ") being passed as an argument to a function ("
-									+ f.getName() + ")", null, m.getTarget());
-						}
-						while(f.preResolveVariables() && ca[i] instanceof IVariable){
-							IVariable cur = (IVariable)ca[i];
-							ca[i] = env.getEnv(GlobalEnv.class).GetVarList().get(cur.getName(), cur.getTarget()).ival();
+					//The evaluated arguments are written straight into the array passed to the function.
+					//The types that can show up here are fixed by the compiler, so there is nothing to
+					//check per argument, other than resolving variables if the function wants that.
+					final boolean preResolve = f.preResolveVariables();
+					args = new Construct[children.size()];
+					Construct[] ca = args;
+					for (int i = 0; i < args.length; i++) {
+						Construct arg = eval(children.get(i), env);
+						args[i] = arg;
+						evaluated++;
+						if(preResolve && arg instanceof IVariable){
+							if(ca == args){
+								ca = Arrays.copyOf(args, args.length);
+							}
+							IVariableList varList = env.getEnv(GlobalEnv.class).GetVarList();
+							while(arg instanceof IVariable){
+								IVariable cur = (IVariable)arg;
+								arg = varList.get(cur.getName(), cur.getTarget()).ival();
+							}
 						}
+						ca[i] = arg;
 					}
 
 					{
@@ -346,7 +350,9 @@ public class Script {
 						//if we actually aren't going to profile
 						ProfilePoint p = null;
 						if(f.shouldProfile() && env.getEnv(GlobalEnv.class).GetProfiler() != null && env.getEnv(GlobalEnv.class).GetProfiler().isLoggable(f.profileAt())){
-							p = env.getEnv(GlobalEnv.class).GetProfiler().start(f.profileMessage(ca), f.profileAt());
+							Profiler profiler = env.getEnv(GlobalEnv.class).GetProfiler();
+							//When aggregating, calls with different arguments should still be counted together
+							p = profiler.start(profiler.isAggregating() ? f.profileName() : f.profileMessage(ca), f.profileAt());
 						}
 						Construct ret;
 						try {
@@ -394,7 +400,8 @@ public class Script {
 					List<String> args2 = new ArrayList<>();
 					Map<String, String> vars = new HashMap<>();
 
-					for(Construct cc : args){
+					for(int i = 0; i < evaluated; i++){
+						Construct cc = args[i];
 						if(cc instanceof IVariable){
 							Construct ccc = env.getEnv(GlobalEnv.class).GetVarList().get(((IVariable)cc).getName(), cc.getTarget()).ival();
 							String vval = ccc.val();
@@ -462,68 +469,61 @@ public class Script {
     }
 
     public boolean match(String command) {
+        return match(command.split(" "));
+    }
+
+    /**
+     * Works like {@link #match(java.lang.String)}, but takes the command already
+     * split into words, so the command only has to be split once, no matter how
+     * many aliases it is checked against.
+     * @param cmds The command, split on spaces, as with command.split(" ")
+     * @return
+     */
+    public boolean match(String[] cmds) {
         if(cleft == null){
             //The compilation error happened during the signature declaration, so
             //we can't match it, nor can we even tell if it's what they intended for us to run.
             return false;
         }
         boolean case_sensitive = Prefs.CaseSensitive();
-        String[] cmds = command.split(" ");
-        List<String> args = new ArrayList(Arrays.asList(cmds));
         boolean isAMatch = true;
-        StringBuilder lastVar = new StringBuilder();
         int lastJ = 0;
-        try {
-            for (int j = 0; j < cleft.size(); j++) {
-                if (!isAMatch) {
-                    break;
+        for (int j = 0; j < cleft.size(); j++) {
+            if (!isAMatch) {
+                break;
+            }
+            lastJ = j;
+            Construct c = cleft.get(j);
+            if (j >= cmds.length) {
+                //We ran out of words, which is only ok if the rest of the signature is optional
+                if (c.getCType() != ConstructType.VARIABLE || !((Variable) c).isOptional()) {
+                    isAMatch = false;
                 }
-                lastJ = j;
-                Construct c = cleft.get(j);
-                String arg = args.get(j);
-                if (c.getCType() != ConstructType.VARIABLE) {
-                    if (case_sensitive && !c.val().equals(arg) || !case_sensitive && !c.val().equalsIgnoreCase(arg)) {
-                        isAMatch = false;
-                        continue;
-                    }
-                } else {
-                    //It's a variable. If it's optional, the rest of them are optional too, so as long as the size of
-                    //args isn't greater than the size of cleft, it's a match
-                    if (((Variable) c).isOptional()) {
-                        if (args.size() <= cleft.size()) {
-                            return true;
-                        } else {
-                            Construct fin = cleft.get(cleft.size() - 1);
-                            if (fin instanceof Variable) {
-                                if (((Variable) fin).isFinal()) {
-                                    return true;
-                                }
-                            }
-                            return false;
-                        }
-                    }
+                break;
+            }
+            String arg = cmds[j];
+            if (c.getCType() != ConstructType.VARIABLE) {
+                if (case_sensitive && !c.val().equals(arg) || !case_sensitive && !c.val().equalsIgnoreCase(arg)) {
+                    isAMatch = false;
+                    continue;
                 }
-                if (j == cleft.size() - 1) {
-                    if (cleft.get(j).getCType() == ConstructType.VARIABLE) {
-                        Variable lv = (Variable) cleft.get(j);
-                        if (lv.isFinal()) {
-                            for (int a = j; a < args.size(); a++) {
-                                if (lastVar.length() == 0) {
-                                    lastVar.append(args.get(a));
-                                } else {
-                                    lastVar.append(" ").append(args.get(a));
-                                }
+            } else {
+                //It's a variable. If it's optional, the rest of them are optional too, so as long as the size of
+                //args isn't greater than the size of cleft, it's a match
+                if (((Variable) c).isOptional()) {
+                    if (cmds.length <= cleft.size()) {
+                        return true;
+                    } else {
+                        Construct fin = cleft.get(cleft.size() - 1);
+                        if (fin instanceof Variable) {
+                            if (((Variable) fin).isFinal()) {
+                                return true;
                             }
                         }
+                        return false;
                     }
                 }
             }
-        } catch (IndexOutOfBoundsException e) {
-            if (cleft.get(lastJ).getCType() != ConstructType.VARIABLE
-                    || cleft.get(lastJ).getCType() == ConstructType.VARIABLE
-                    && !((Variable) cleft.get(lastJ)).isOptional()) {
-                isAMatch = false;
-            }
         }
         boolean lastIsFinal = false;
         if (cleft.get(cleft.size() - 1) instanceof Variable) {
@@ -542,6 +542,27 @@ public class Script {
         return isAMatch;
     }
 
+    /**
+     * Returns the values of the literal words at the start of the signature, up to
+     * the first variable. A command can only match this alias if it starts with these
+     * words. If the signature failed to compile, null is returned, as this alias can't
+     * match anything.
+     * @return
+     */
+    public List<String> getLeadingLiterals() {
+        if (cleft == null) {
+            return null;
+        }
+        List<String> literals = new ArrayList<String>();
+        for (Construct c : cleft) {
+            if (c.getCType() == ConstructType.VARIABLE) {
+                break;
+            }
+            literals.add(c.val());
+        }
+        return literals;
+    }
+
     public List<Variable> getVariables(String command) {
         String[] cmds = command.split(" ");
         List<String> args = new ArrayList(Arrays.asList(cmds));
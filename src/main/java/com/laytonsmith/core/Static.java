@@ -59,6 +59,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -81,6 +83,26 @@ public final class Static {
 
 	private static Map<String, String> hostCache = new HashMap<String, String>();
 
+	/**
+	 * The maximum number of permission decisions remembered per player.
+	 */
+	private static final int MAX_PERMISSION_DECISIONS = 512;
+
+	private static class PermissionDecision {
+		final boolean allowed;
+		final long expires;
+
+		PermissionDecision(boolean allowed, long expires) {
+			this.allowed = allowed;
+			this.expires = expires;
+		}
+	}
+
+	/**
+	 * The results of restricted function permission checks, by player, then by world, label and function.
+	 */
+	private static final ConcurrentMap<String, ConcurrentMap<String, PermissionDecision>> permissionCache = new ConcurrentHashMap<>();
+
 	private static final String consoleName = "~console";
 
 	private static final String blockPrefix = "#"; // Chosen over @ because that does special things when used by the block
@@ -413,52 +435,110 @@ public final class Static {
 		if(val.equals("void")){
 			return CClassType.VOID;
 		}
-		if (val.matches("0x[a-fA-F0-9]*[^a-fA-F0-9]+[a-fA-F0-9]*")) {
-			throw new ConfigRuntimeException("Hex numbers must only contain digits 0-9, and the letters A-F, but \"" + val + "\" was found.",
-					ExceptionType.FormatException, t);
-		}
-		if (val.matches("0x[a-fA-F0-9]+")) {
-			//Hex number
-			return new CInt(Long.parseLong(val.substring(2), 16), t);
-		}
-		if (val.matches("0b[0-1]*[^0-1]+[0-1]*")) {
-			throw new ConfigRuntimeException("Binary numbers must only contain digits 0 and 1, but \"" + val + "\" was found.",
-					ExceptionType.FormatException, t);
-		}
-		if (val.matches("0b[0-1]+")) {
-			//Binary number
-			return new CInt(Long.parseLong(val.substring(2), 2), t);
-		}
-		if(val.matches("0o[0-7]*[^0-7]+[0-7]*")){
-			throw new ConfigRuntimeException("Octal numbers must only contain digits 0-7, but \"" + val + "\" was found.",
-					ExceptionType.FormatException, t);
+		if (val.length() > 2 && val.charAt(0) == '0') {
+			char prefix = val.charAt(1);
+			int radix = prefix == 'x' ? 16 : prefix == 'b' ? 2 : prefix == 'o' ? 8 : 0;
+			if (radix != 0) {
+				//Values with a single run of invalid characters, like 0xZZ or 0x1G1, are
+				//likely typos, and are errors. Anything else invalid is just a string.
+				int invalidRuns = 0;
+				boolean inRun = false;
+				for (int i = 2; i < val.length(); i++) {
+					boolean valid = isRadixDigit(val.charAt(i), radix);
+					if (!valid && !inRun) {
+						invalidRuns++;
+					}
+					inRun = !valid;
+				}
+				if (invalidRuns == 0) {
+					return new CInt(Long.parseLong(val.substring(2), radix), t);
+				} else if (invalidRuns == 1) {
+					String message;
+					if (radix == 16) {
+						message = "Hex numbers must only contain digits 0-9, and the letters A-F, but \"" + val + "\" was found.";
+					} else if (radix == 2) {
+						message = "Binary numbers must only contain digits 0 and 1, but \"" + val + "\" was found.";
+					} else {
+						message = "Octal numbers must only contain digits 0-7, but \"" + val + "\" was found.";
+					}
+					throw new ConfigRuntimeException(message, ExceptionType.FormatException, t);
+				}
+			}
 		}
-		if(val.matches("0o[0-7]+")){
-			return new CInt(Long.parseLong(val.substring(2), 8), t);
+		//Plain integers are by far the most common number, so parse them directly
+		int start = val.length() > 0 && (val.charAt(0) == '-' || val.charAt(0) == '+') ? 1 : 0;
+		int digits = val.length() - start;
+		if (digits > 0 && digits <= 18) {
+			long l = 0;
+			int i = start;
+			for (; i < val.length(); i++) {
+				char c = val.charAt(i);
+				if (c < '0' || c > '9') {
+					break;
+				}
+				l = l * 10 + (c - '0');
+			}
+			if (i == val.length()) {
+				return new CInt(val.charAt(0) == '-' ? -l : l, t);
+			}
 		}
-		try {
-			return new CInt(Long.parseLong(val), t);
-		} catch (NumberFormatException e) {
+		if (mayBeNumber(val)) {
 			try {
-				if (!(val.contains(" ") || val.contains("\t"))) {
+				return new CInt(Long.parseLong(val), t);
+			} catch (NumberFormatException e) {
+				try {
+					if (!(val.contains(" ") || val.contains("\t"))) {
                         //Interesting behavior in Double.parseDouble causes it to "trim" strings first, then
-					//try to parse them, which is not desireable in our case. So, if the value contains
-					//any characters other than [\-0-9\.], we want to make it a string instead
-					return new CDouble(Double.parseDouble(val), t);
-				}
-			} catch (NumberFormatException g) {
+						//try to parse them, which is not desireable in our case. So, if the value contains
+						//any characters other than [\-0-9\.], we want to make it a string instead
+						return new CDouble(Double.parseDouble(val), t);
+					}
+				} catch (NumberFormatException g) {
                     // Not a double either
+				}
 			}
 		}
 		// TODO: Once compiler environments are added, we would need to check to see if the value here is a custom
 		// type. However, as it stands, since we only support the native types, we will just hardcode the check here.
-		if(NativeTypeList.getNativeTypeList().contains(val)){
+		if(NativeTypeList.isNativeType(val)){
 			return new CClassType(val, t);
 		} else {
 			return new CString(val, t);
 		}
 	}
 
+	/**
+	 * Returns true if the character is a digit in the given radix. Unlike
+	 * {@link Character#digit(char, int)}, only ascii digits and letters count.
+	 */
+	private static boolean isRadixDigit(char c, int radix) {
+		if (c >= '0' && c <= '9') {
+			return c - '0' < radix;
+		}
+		if (radix == 16) {
+			return (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+		}
+		return false;
+	}
+
+	/**
+	 * Returns false if neither {@link Long#parseLong(java.lang.String)} nor
+	 * {@link Double#parseDouble(java.lang.String)} could possibly accept the value,
+	 * so that ordinary strings can skip the exceptions entirely. Both only accept
+	 * values that start with a digit, sign, decimal point, NaN or Infinity, though
+	 * parseDouble ignores leading whitespace and control characters.
+	 */
+	private static boolean mayBeNumber(String val) {
+		for (int i = 0; i < val.length(); i++) {
+			char c = val.charAt(i);
+			if (c <= ' ') {
+				continue;
+			}
+			return Character.isDigit(c) || c == '-' || c == '+' || c == '.' || c == 'N' || c == 'I';
+		}
+		return false;
+	}
+
 	public static Construct resolveDollarVar(Construct variable, List<Variable> vars) {
 		if (variable == null) {
 			return CNull.NULL;
@@ -965,54 +1045,93 @@ public final class Static {
 
 	public static boolean hasCHPermission(String functionName, Environment env) {
 		//The * label completely overrides everything
-		if (PermissionsResolver.GLOBAL_PERMISSION.equals(env.getEnv(GlobalEnv.class).GetLabel())) {
+		String label = env.getEnv(GlobalEnv.class).GetLabel();
+		if (PermissionsResolver.GLOBAL_PERMISSION.equals(label)) {
 			return true;
 		}
-		MCPlayer player = env.getEnv(CommandHelperEnvironment.class).GetPlayer();
 		MCCommandSender commandSender = env.getEnv(CommandHelperEnvironment.class).GetCommandSender();
-		String label = env.getEnv(GlobalEnv.class).GetLabel();
-		boolean perm = false;
+		if (commandSender == null
+				|| commandSender.isOp()) {
+			return true;
+		}
 		PermissionsResolver perms = env.getEnv(GlobalEnv.class).GetPermissionsResolver();
-		if (perms != null) {
-			if (commandSender instanceof MCPlayer) {
-				perm = perms.hasPermission(player.getName(), "ch.func.use." + functionName, player.getWorld().getName())
-						|| perms.hasPermission(player.getName(), "commandhelper.func.use." + functionName, player.getWorld().getName());
-				if (label != null && label.startsWith("~")) {
-					String[] groups = env.getEnv(GlobalEnv.class).GetLabel().substring(1).split("/");
-					for (String group : groups) {
-						if (perms.inGroup(env.getEnv(CommandHelperEnvironment.class).GetPlayer().getName(), group)) {
-							perm = true;
-							break;
-						}
-					}
-				} else {
-					if (env.getEnv(GlobalEnv.class).GetLabel() != null) {
-						if (env.getEnv(GlobalEnv.class).GetLabel().contains(".")) {
-                            //We are using a non-standard permission. Don't automatically
-							//add CH's prefix
-							if (perms.hasPermission(player.getName(), label, player.getWorld().getName())) {
-								perm = true;
-							}
-						} else if ((perms.hasPermission(player.getName(), "ch.alias." + label, player.getWorld().getName()))
-								|| perms.hasPermission(player.getName(), "commandhelper.alias." + label, player.getWorld().getName())) {
-							perm = true;
-						}
-					}
-				}
-			} else if (commandSender instanceof MCConsoleCommandSender) {
-				perm = true;
+		if (perms == null || commandSender instanceof MCConsoleCommandSender) {
+			return true;
+		}
+		if (!(commandSender instanceof MCPlayer)) {
+			return false;
+		}
+		MCPlayer player = env.getEnv(CommandHelperEnvironment.class).GetPlayer();
+		String playerName = player.getName();
+		String world = player.getWorld().getName();
+		int timeout = Prefs.isInitialized() ? Prefs.PermissionCacheTimeout() : 0;
+		if (timeout <= 0) {
+			return hasCHPermission(perms, playerName, world, label, functionName);
+		}
+		String key = world + "\n" + label + "\n" + functionName;
+		ConcurrentMap<String, PermissionDecision> decisions = permissionCache.get(playerName);
+		if (decisions == null) {
+			decisions = new ConcurrentHashMap<>();
+			ConcurrentMap<String, PermissionDecision> existing = permissionCache.putIfAbsent(playerName, decisions);
+			if (existing != null) {
+				decisions = existing;
 			}
-		} else {
-			perm = true;
 		}
-		if (label != null && PermissionsResolver.GLOBAL_PERMISSION.equals(label)) {
-			perm = true;
+		long now = System.currentTimeMillis();
+		PermissionDecision decision = decisions.get(key);
+		if (decision == null || decision.expires < now) {
+			if (decisions.size() >= MAX_PERMISSION_DECISIONS) {
+				decisions.clear();
+			}
+			decision = new PermissionDecision(hasCHPermission(perms, playerName, world, label, functionName), now + timeout);
+			decisions.put(key, decision);
 		}
-		if (commandSender == null
-				|| commandSender.isOp()) {
-			perm = true;
+		return decision.allowed;
+	}
+
+	/**
+	 * Does the actual permission check for a player, for {@link #hasCHPermission(java.lang.String, com.laytonsmith.core.environments.Environment)}.
+	 */
+	private static boolean hasCHPermission(PermissionsResolver perms, String player, String world, String label, String functionName) {
+		if (perms.hasPermission(player, "ch.func.use." + functionName, world)
+				|| perms.hasPermission(player, "commandhelper.func.use." + functionName, world)) {
+			return true;
+		}
+		if (label != null && label.startsWith("~")) {
+			String[] groups = label.substring(1).split("/");
+			for (String group : groups) {
+				if (perms.inGroup(player, group)) {
+					return true;
+				}
+			}
+		} else if (label != null) {
+			if (label.contains(".")) {
+				//We are using a non-standard permission. Don't automatically
+				//add CH's prefix
+				return perms.hasPermission(player, label, world);
+			} else {
+				return perms.hasPermission(player, "ch.alias." + label, world)
+						|| perms.hasPermission(player, "commandhelper.alias." + label, world);
+			}
 		}
-		return perm;
+		return false;
+	}
+
+	/**
+	 * Forgets all the remembered permission decisions for this player. This should be
+	 * called if the player's permissions or groups change, and is called when the player
+	 * leaves.
+	 * @param player
+	 */
+	public static void ClearPermissionCache(String player) {
+		permissionCache.remove(player);
+	}
+
+	/**
+	 * Forgets all the remembered permission decisions, for all players.
+	 */
+	public static void ClearPermissionCache() {
+		permissionCache.clear();
 	}
 
 	public static String Logo() {
@@ -13,17 +13,22 @@ import com.laytonsmith.core.natives.interfaces.ArrayAccess;
 import com.laytonsmith.core.natives.interfaces.Mixed;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A class that represents a dynamic array.
@@ -39,10 +44,37 @@ public class CArray extends Construct implements ArrayAccess{
     private boolean associative_mode = false;
     private long next_index = 0;
     private List<Construct> array;
-    private SortedMap<String, Construct> associative_array;
+    /**
+     * The values of the associative array, by canonical key. See {@link #canonicalKey}.
+     */
+    private Map<String, Construct> associative_array;
+    /**
+     * For the (rare) keys whose canonical form is different than the key that was
+     * originally used, for instance "01" or "1.0", this maps the canonical key back
+     * to the original, which is what is shown to the user. Null if there are no such keys.
+     */
+    private Map<String, String> associative_names;
+    /**
+     * The canonical keys of the associative array, in order. This is only built
+     * once the array is iterated, and is then kept up to date as keys are added
+     * and removed. Null if it hasn't been built.
+     */
+    private List<String> associative_order;
     private String mutVal;
     CArray parent = null;
-	private boolean valueDirty = true;
+	/**
+	 * The source of the versions used to track changes, see {@link #regenValue()}.
+	 */
+	private static final AtomicLong VERSIONS = new AtomicLong();
+	/**
+	 * The version of the last change to this array, or any array in it.
+	 */
+	private long version = 0;
+	/**
+	 * The version mutVal was generated from. If this differs from version, mutVal
+	 * is out of date.
+	 */
+	private long valueVersion = -1;
 
 	public CArray(Target t) {
 		this(t, 0, (Construct[]) null);
@@ -77,25 +109,19 @@ public class CArray extends Construct implements ArrayAccess{
 				}
 			}
 		}
-		associative_array = new TreeMap<>(comparator);
-		array = associative_mode ? new ArrayList<Construct>() : initialCapacity > -1 ? new ArrayList<Construct>(initialCapacity) : items != null ? new ArrayList<Construct>(items.length) : new ArrayList<Construct>();
+		associative_array = new HashMap<>();
+		array = associative_mode ? new ConstructList() : initialCapacity > -1 ? new ConstructList(initialCapacity) : items != null ? new ConstructList(items.length) : new ConstructList();
 		if(associative_mode){
 			if(items != null){
 				for(Construct item : items){
 					if(item instanceof CEntry){
-						associative_array.put(normalizeConstruct(((CEntry)item).ckey), ((CEntry)item).construct);
+						putAssociative(normalizeConstruct(((CEntry)item).ckey), ((CEntry)item).construct);
 					} else {
-						int max = Integer.MIN_VALUE;
-						for (String key : associative_array.keySet()) {
-							try {
-								int i = Integer.parseInt(key);
-								max = java.lang.Math.max(max, i);
-							} catch(NumberFormatException e){}
-						}
+						int max = maxAssociativeIntKey(Integer.MIN_VALUE);
 						if(max == Integer.MIN_VALUE){
 							max = -1; //Special case, there are no integer indexes in here yet.
 						}
-						associative_array.put(Integer.toString(max + 1), item);
+						putAssociative(Integer.toString(max + 1), item);
 						if(item instanceof CArray){
 							((CArray)item).parent = this;
 						}
@@ -113,7 +139,7 @@ public class CArray extends Construct implements ArrayAccess{
 			}
 			this.next_index = array.size();
 		}
-		regenValue(new HashSet<CArray>());
+		regenValue();
 	}
 
 	/**
@@ -147,11 +173,213 @@ public class CArray extends Construct implements ArrayAccess{
 	}
 
 	/**
-	 * Returns the backing associative array.
+	 * Returns a copy of the associative array, in order.
 	 * @return
 	 */
 	protected SortedMap<String, Construct> getAssociativeArray(){
-		return associative_array;
+		SortedMap<String, Construct> map = new TreeMap<>(KEY_COMPARATOR);
+		for(String key : getAssociativeOrder()){
+			map.put(getKeyName(key), associative_array.get(key));
+		}
+		return map;
+	}
+
+	/**
+	 * Returns the canonical form of an associative array key. Keys are ordered
+	 * by {@link #KEY_COMPARATOR}, which considers numeric keys like "1", "01" and
+	 * "1.0" to be the same key, so those are all stored under the same canonical
+	 * key, which allows for hashed lookups. Non numeric keys are their own canonical
+	 * form, and canonical numeric keys only contain digits and dots, so the two
+	 * can't collide.
+	 * @param key
+	 * @return
+	 */
+	private static String canonicalKey(String key){
+		if(!isNumericKey(key)){
+			return key;
+		}
+		if(isCanonicalInt(key)){
+			return key;
+		}
+		try{
+			return Integer.toString(Integer.parseInt(key));
+		} catch(NumberFormatException e){
+			try{
+				double d = Double.parseDouble(key);
+				if(d == 0){
+					return "0";
+				}
+				return BigDecimal.valueOf(d).stripTrailingZeros().toPlainString();
+			} catch(NumberFormatException ee){
+				return key;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the key only contains digits and dots, in which case the key is
+	 * compared numerically, if it can be parsed. Keys with a minus sign have always been
+	 * compared as strings, so "-1" and "-01" are different keys, and so are "-0" and "0".
+	 * @param key
+	 * @return
+	 */
+	private static boolean isNumericKey(String key){
+		if(key.isEmpty()){
+			return false;
+		}
+		for(int i = 0; i < key.length(); i++){
+			char c = key.charAt(i);
+			if((c < '0' || c > '9') && c != '.'){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the numeric key is a plain positive integer, short enough that it
+	 * can't overflow, with no leading zeroes, or 0 itself. This is by far the most common
+	 * type of numeric key, and these are already in canonical form, and can be parsed directly.
+	 */
+	private static boolean isCanonicalInt(String key){
+		if(key.length() >= 10 || key.indexOf('.') != -1){
+			return false;
+		}
+		char first = key.charAt(0);
+		return (first >= '1' && first <= '9') || key.length() == 1;
+	}
+
+	/**
+	 * Returns the numeric value of the key, or NaN if it isn't a numeric key. Keys too
+	 * large to fit in a double are also NaN, so that they are compared as strings, since
+	 * they would otherwise all be equal to each other, which would disagree with
+	 * {@link #canonicalKey}, which keeps them as distinct keys.
+	 */
+	private static double numericValue(String key){
+		if(!isNumericKey(key)){
+			return Double.NaN;
+		}
+		if(isCanonicalInt(key)){
+			return Integer.parseInt(key);
+		}
+		try{
+			double d = Double.parseDouble(key);
+			return Double.isInfinite(d) ? Double.NaN : d;
+		} catch(NumberFormatException e){
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Returns the key as originally given, for the given canonical key.
+	 * @param canonical
+	 * @return
+	 */
+	private String getKeyName(String canonical){
+		if(associative_names != null){
+			String name = associative_names.get(canonical);
+			if(name != null){
+				return name;
+			}
+		}
+		return canonical;
+	}
+
+	/**
+	 * Returns the canonical keys, in order, building the order if needed.
+	 * The returned list must not be modified.
+	 * @return
+	 */
+	private List<String> getAssociativeOrder(){
+		if(associative_order == null){
+			List<String> order = new ArrayList<>(associative_array.keySet());
+			Collections.sort(order, new Comparator<String>() {
+
+				@Override
+				public int compare(String o1, String o2) {
+					return KEY_COMPARATOR.compare(getKeyName(o1), getKeyName(o2));
+				}
+			});
+			associative_order = order;
+		}
+		return associative_order;
+	}
+
+	/**
+	 * Returns the index of the canonical key in the associative order, or, if it
+	 * isn't in it, (-(insertion point) - 1), as per {@link Collections#binarySearch}.
+	 */
+	private int searchAssociativeOrder(String name){
+		int low = 0;
+		int high = associative_order.size() - 1;
+		while(low <= high){
+			int mid = (low + high) >>> 1;
+			int cmp = KEY_COMPARATOR.compare(getKeyName(associative_order.get(mid)), name);
+			if(cmp < 0){
+				low = mid + 1;
+			} else if(cmp > 0){
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Sets the value in the associative array. All writes to the associative array
+	 * must go through here, so the key indexes stay up to date.
+	 * @param key The key, which needn't be canonical.
+	 * @param value
+	 */
+	private void putAssociative(String key, Construct value){
+		String canonical = canonicalKey(key);
+		if(associative_array.containsKey(canonical)){
+			associative_array.put(canonical, value);
+			return;
+		}
+		associative_array.put(canonical, value);
+		if(!canonical.equals(key)){
+			if(associative_names == null){
+				associative_names = new HashMap<>();
+			}
+			associative_names.put(canonical, key);
+		}
+		if(associative_order != null){
+			associative_order.add(-searchAssociativeOrder(key) - 1, canonical);
+		}
+	}
+
+	/**
+	 * Removes the value from the associative array, if it exists.
+	 * @param key The key, which needn't be canonical.
+	 * @return The removed value, or null if it didn't exist.
+	 */
+	private Construct removeAssociative(String key){
+		String canonical = canonicalKey(key);
+		if(!associative_array.containsKey(canonical)){
+			return null;
+		}
+		if(associative_order != null){
+			associative_order.remove(searchAssociativeOrder(getKeyName(canonical)));
+		}
+		if(associative_names != null){
+			associative_names.remove(canonical);
+		}
+		return associative_array.remove(canonical);
+	}
+
+	/**
+	 * Returns the highest integer key in the associative array, or the given default if there are none.
+	 */
+	private int maxAssociativeIntKey(int def){
+		int max = def;
+		for(String key : associative_array.keySet()){
+			try{
+				max = java.lang.Math.max(max, Integer.parseInt(key));
+			} catch(NumberFormatException e){}
+		}
+		return max;
 	}
 
 	private static Construct [] getArray(Collection<Construct> items){
@@ -189,7 +417,7 @@ public class CArray extends Construct implements ArrayAccess{
      */
     private CArray forceAssociativeMode(){
         if(associative_array == null){
-            associative_array = new TreeMap<String, Construct>();
+            associative_array = new HashMap<>();
         }
         associative_mode = true;
 		return this;
@@ -199,15 +427,18 @@ public class CArray extends Construct implements ArrayAccess{
 	 * This must be called every time the underlying model is changed, which
 	 * sets the toString value to dirty, which means that the value will be regenerated
 	 * next time it is requested.
+	 *
+	 * Each change takes a new version from {@link #VERSIONS}, and stamps it on this
+	 * array and its parents. Since the version is unique to this change, seeing
+	 * it again while walking up means the parents are recursive, so no bookkeeping
+	 * is needed to stop.
 	 */
-    private void regenValue(Set<CArray> arrays) {
-		if(arrays.contains(this)){
-			return; //Recursive, so don't continue.
-		}
-		arrays.add(this);
-        valueDirty = true;
-		if(parent != null){
-			parent.regenValue(arrays);
+    private void regenValue() {
+		long v = VERSIONS.incrementAndGet();
+		CArray a = this;
+		while(a != null && a.version != v){
+			a.version = v;
+			a = a.parent;
 		}
     }
 
@@ -218,7 +449,7 @@ public class CArray extends Construct implements ArrayAccess{
 	public void reverse(){
 		if(!associative_mode){
 			Collections.reverse(array);
-			regenValue(new HashSet<CArray>());
+			regenValue();
 		} else {
 			throw new ConfigRuntimeException("Cannot reverse an associative array.", ExceptionType.CastException, getTarget());
 		}
@@ -254,23 +485,17 @@ public class CArray extends Construct implements ArrayAccess{
 			if(index != null){
 				throw new IllegalArgumentException("Cannot insert into an associative array");
 			}
-            int max = 0;
-            for (String key : associative_array.keySet()) {
-                try{
-                    int i = Integer.parseInt(key);
-                    max = java.lang.Math.max(max, i);
-                } catch(NumberFormatException e){}
-            }
+            int max = maxAssociativeIntKey(0);
             if(c instanceof CEntry){
-                associative_array.put(Integer.toString(max + 1), ((CEntry)c).construct());
+                putAssociative(Integer.toString(max + 1), ((CEntry)c).construct());
             } else {
-                associative_array.put(Integer.toString(max + 1), c);
+                putAssociative(Integer.toString(max + 1), c);
             }
         }
         if(c instanceof CArray){
             ((CArray)c).parent = this;
         }
-        regenValue(new HashSet<CArray>());
+        regenValue();
     }
 
     /**
@@ -287,8 +512,8 @@ public class CArray extends Construct implements ArrayAccess{
                 set.add(new CInt(i, Target.UNKNOWN));
             }
         } else {
-            for(String key : associative_array.keySet()){
-				set.add(new CString(key, Target.UNKNOWN));
+            for(String key : getAssociativeOrder()){
+				set.add(new CString(getKeyName(key), Target.UNKNOWN));
 			}
         }
         return set;
@@ -301,15 +526,42 @@ public class CArray extends Construct implements ArrayAccess{
 	 * @return
 	 */
 	public Set<String> stringKeySet(){
-		Set<String> set = !associative_mode?new LinkedHashSet<String>(array.size()):new HashSet<String>(associative_array.size());
-        if(!associative_mode){
-            for(int i = 0; i < array.size(); i++){
-                set.add(Integer.toString(i));
-            }
-        } else {
-            set = associative_array.keySet();
-        }
-        return set;
+		return new LinkedHashSet<>(keyView());
+	}
+
+	/**
+	 * Returns a read only view of the keys of this array, as strings, in order. Unlike
+	 * {@link #keySet()} and {@link #stringKeySet()}, nothing is copied; the keys of an
+	 * associative array are returned as is, and the indexes of a normal array are only
+	 * converted to strings as they are requested. The view reflects later changes to
+	 * the array, so if the array may be changed while iterating, copy the view first.
+	 * For normal arrays, it is cheaper still to simply loop from 0 to size - 1.
+	 * @return
+	 */
+	public List<String> keyView(){
+		return new KeyView();
+	}
+
+	private final class KeyView extends AbstractList<String> implements RandomAccess {
+
+		@Override
+		public String get(int index) {
+			if(associative_mode){
+				return getKeyName(getAssociativeOrder().get(index));
+			}
+			//Bound against size(), not the backing list, since subclasses such as CSlice
+			//override size() and leave the list empty.
+			int size = size();
+			if(index < 0 || index >= size){
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			return Integer.toString(index);
+		}
+
+		@Override
+		public int size() {
+			return (int) CArray.this.size();
+		}
 	}
 
     /**
@@ -330,7 +582,9 @@ public class CArray extends Construct implements ArrayAccess{
                 }
             } catch (ConfigRuntimeException e) {
                 //Not a number. Convert to associative.
-                associative_array = new TreeMap<String, Construct>(comparator);
+                associative_array = new HashMap<>();
+                associative_names = null;
+                associative_order = null;
                 for (int i = 0; i < array.size(); i++) {
                     associative_array.put(Integer.toString(i), array.get(i));
                 }
@@ -339,12 +593,12 @@ public class CArray extends Construct implements ArrayAccess{
             }
         }
         if (associative_mode) {
-            associative_array.put(normalizeConstruct(index), c);
+            putAssociative(normalizeConstruct(index), c);
         }
         if(c instanceof CArray){
             ((CArray)c).parent = this;
         }
-        regenValue(new HashSet<CArray>());
+        regenValue();
     }
 
     public final void set(int index, Construct c, Target t){
@@ -373,8 +627,9 @@ public class CArray extends Construct implements ArrayAccess{
                 throw new ConfigRuntimeException("The element at index \"" + index.val() + "\" does not exist", ExceptionType.IndexOverflowException, t, e);
             }
         } else {
-            if(associative_array.containsKey(normalizeConstruct(index))){
-                Construct val = associative_array.get(normalizeConstruct(index));
+            String key = canonicalKey(normalizeConstruct(index));
+            Construct val = associative_array.get(key);
+            if(val != null || associative_array.containsKey(key)){
                 if(val instanceof CEntry){
                     return ((CEntry)val).construct();
                 }
@@ -410,7 +665,7 @@ public class CArray extends Construct implements ArrayAccess{
             i = null;
         }
         if(associative_mode){
-            return associative_array.containsKey(c);
+            return associative_array.containsKey(canonicalKey(c));
         } else {
             if(i == null){
                 return false;
@@ -449,9 +704,9 @@ public class CArray extends Construct implements ArrayAccess{
 	public CArray indexesOf(Construct value){
 		CArray ret = new CArray(Target.UNKNOWN);
 		if(associative_mode){
-			for(String key : associative_array.keySet()){
+			for(String key : getAssociativeOrder()){
 				if(BasicLogic.equals.doEquals(associative_array.get(key), value)){
-					ret.push(new CString(key, Target.UNKNOWN));
+					ret.push(new CString(getKeyName(key), Target.UNKNOWN));
 				}
 			}
 		} else {
@@ -466,9 +721,10 @@ public class CArray extends Construct implements ArrayAccess{
 
     @Override
     public String val() {
-		if(valueDirty){
+		long v = version;
+		if(valueVersion != v){
 			mutVal = getString(new HashSet<CArray>());
-			valueDirty = false;
+			valueVersion = v;
 		}
         return mutVal;
     }
@@ -511,7 +767,7 @@ public class CArray extends Construct implements ArrayAccess{
 			}
 		} else {
 			boolean first = true;
-			for(String key : this.stringKeySet()){
+			for(String key : this.keyView()){
 				if(!first){
 					b.append(", ");
 				}
@@ -560,14 +816,20 @@ public class CArray extends Construct implements ArrayAccess{
         clone.associative_mode = associative_mode;
         if(!associative_mode){
             if (array != null) {
-                clone.array = new ArrayList<Construct>(this.array);
+                clone.array = new ConstructList(this.array);
             }
         } else {
             if(associative_array != null){
-                clone.associative_array = new TreeMap<String, Construct>(this.associative_array);
+                clone.associative_array = new HashMap<>(this.associative_array);
+            }
+            if(associative_names != null){
+                clone.associative_names = new HashMap<>(this.associative_names);
+            }
+            if(associative_order != null){
+                clone.associative_order = new ArrayList<>(this.associative_order);
             }
         }
-        clone.regenValue(new HashSet<CArray>());
+        clone.regenValue();
         return clone;
     }
 
@@ -627,9 +889,9 @@ public class CArray extends Construct implements ArrayAccess{
                 throw new ConfigRuntimeException("Cannot remove the value at '" + c + "', as no such index exists in the array", ExceptionType.RangeException, construct.getTarget());
             }
         } else {
-            ret = associative_array.remove(c);
+            ret = removeAssociative(c);
         }
-        regenValue(new HashSet<CArray>());
+        regenValue();
         return ret;
     }
 
@@ -640,14 +902,15 @@ public class CArray extends Construct implements ArrayAccess{
 	 */
 	public void removeValues(Construct construct){
 		if(associative_mode){
-			Iterator<Construct> it;
-			it = associative_array.values().iterator();
-			while(it.hasNext()){
-				Construct c = it.next();
-				if(BasicLogic.equals.doEquals(c, construct)){
-					it.remove();
+			List<String> toRemove = new ArrayList<>();
+			for(Map.Entry<String, Construct> entry : associative_array.entrySet()){
+				if(BasicLogic.equals.doEquals(entry.getValue(), construct)){
+					toRemove.add(entry.getKey());
 				}
 			}
+			for(String key : toRemove){
+				removeAssociative(getKeyName(key));
+			}
 		} else {
 			for(int i = array.size() - 1; i >= 0; i--){
 				Construct c = array.get(i);
@@ -656,7 +919,7 @@ public class CArray extends Construct implements ArrayAccess{
 				}
 			}
 		}
-		regenValue(new HashSet<CArray>());
+		regenValue();
 	}
 
 	/**
@@ -681,7 +944,12 @@ public class CArray extends Construct implements ArrayAccess{
 		}
 	}
 
-    private Comparator<String> comparator = new Comparator<String>(){
+    /**
+     * The ordering of associative array keys. Numeric keys come first, and are compared
+     * numerically, and the rest come after, and are compared as strings. Two keys are
+     * only considered equal if they have the same canonical form.
+     */
+    private static final Comparator<String> KEY_COMPARATOR = new Comparator<String>(){
 
 		@Override
         public int compare(String o1, String o2) {
@@ -693,31 +961,21 @@ public class CArray extends Construct implements ArrayAccess{
 			} else if (o1 != null && o2 == null) {
 				return 1;
 			}
-
-            //Due to a dumb behavior in Double.parseDouble,
-            //we need to check to see if there are non-digit characters in
-            //the keys, and if so, do a string comparison.
-            if(o1.matches(".*[^0-9\\.]+.*") || o2.matches(".*[^0-9\\.]+.*")){
-                return o1.compareTo(o2);
-            }
-            try{
-                int i1 = Integer.parseInt(o1);
-                int i2 = Integer.parseInt(o2);
-                //They're both integers, do an integer comparison
-                return new Integer(i1).compareTo(new Integer(i2));
-            } catch(NumberFormatException e){
-                try{
-                    double d1 = Double.parseDouble(o1);
-                    double d2 = Double.parseDouble(o2);
-                    //They're both doubles, do a double comparison
-                    return new Double(d1).compareTo(new Double(d2));
-                } catch(NumberFormatException ee){
-                    //Just do a string comparison
-                    return o1.compareTo(o2);
-                }
-            }
+			double d1 = numericValue(o1);
+			double d2 = numericValue(o2);
+			boolean n1 = !Double.isNaN(d1);
+			boolean n2 = !Double.isNaN(d2);
+			if(n1 && n2){
+				//Not Double.compare, -0.0 and 0.0 are the same key
+				return d1 < d2 ? -1 : (d1 > d2 ? 1 : 0);
+			} else if(n1){
+				return -1;
+			} else if(n2){
+				return 1;
+			} else {
+				return o1.compareTo(o2);
+			}
         }
-
     };
 
     @Override
@@ -765,13 +1023,22 @@ public class CArray extends Construct implements ArrayAccess{
     public void sort(final SortType sort){
         List<Construct> list = array;
         if(this.associative_mode){
-            list = new ArrayList(associative_array.values());
+            list = new ConstructList(associative_array.size());
+            for(String key : getAssociativeOrder()){
+                list.add(associative_array.get(key));
+            }
             this.associative_array.clear();
-            this.associative_array = null;
+            this.associative_names = null;
+            this.associative_order = null;
             this.associative_mode = false;
             CHLog.GetLogger().Log(CHLog.Tags.GENERAL, LogLevel.VERBOSE, "Attempting to sort an associative array; key values will be lost.", this.getTarget());
+        } else if((sort == SortType.REGULAR || sort == SortType.NUMERIC)
+                && ((ConstructList) array).sortNumeric()){
+            //The values are all ints, or all doubles, so they can be sorted directly
+            this.regenValue();
+            return;
         }
-        Collections.sort(array, new Comparator<Construct>() {
+        Collections.sort(list, new Comparator<Construct>() {
 			@Override
             public int compare(Construct o1, Construct o2) {
                 //o1 < o2 -> -1
@@ -848,7 +1115,8 @@ public class CArray extends Construct implements ArrayAccess{
             }
         });
         this.array = list;
-        this.regenValue(new HashSet<CArray>());
+        this.next_index = list.size();
+        this.regenValue();
     }
 
 	public boolean isEmpty(){
@@ -861,12 +1129,14 @@ public class CArray extends Construct implements ArrayAccess{
 	public void clear(){
 		this.array.clear();
 		this.associative_array.clear();
+		this.associative_names = null;
+		this.associative_order = null;
 		this.next_index = 0;
 		this.parent = null;
-		this.valueDirty = true;
+		this.version = VERSIONS.incrementAndGet();
 	}
 
 	public void ensureCapacity(int capacity) {
-		((ArrayList) array).ensureCapacity(capacity);
+		((ConstructList) array).ensureCapacity(capacity);
 	}
 }
\ No newline at end of file
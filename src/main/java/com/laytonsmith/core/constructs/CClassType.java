@@ -11,6 +11,7 @@ public class CClassType extends Construct {
 	public static final CClassType MIXED = new CClassType("mixed", Target.UNKNOWN);
 	public static final CClassType AUTO = new CClassType("auto", Target.UNKNOWN);
 	public static final CClassType VOID = new CClassType("void", Target.UNKNOWN);
+	public static final CClassType ARRAY = new CClassType("array", Target.UNKNOWN);
 
 	public CClassType(String type, Target t) {
 		super(type, ConstructType.CLASS_TYPE, t);
@@ -15,11 +15,34 @@ public class CFunction extends Construct {
 
     public static final long serialVersionUID = 1L;
 	private transient Function function;
+	private final boolean procedure;
 
     public CFunction(String name, Target t) {
         super(name, ConstructType.FUNCTION, t);
+		procedure = isProcedureName(name);
     }
 
+	/**
+	 * Returns true if the given name refers to a procedure rather than a function,
+	 * that is, it starts with a single underscore. This is equivalent to matching
+	 * the name against <code>^_[^_].*</code>, but doesn't require a regex.
+	 * @param name
+	 * @return
+	 */
+	public static boolean isProcedureName(String name){
+		return name.length() > 1 && name.charAt(0) == '_' && name.charAt(1) != '_';
+	}
+
+	/**
+	 * Returns true if this is a procedure call, as opposed to a function call. This
+	 * is determined once, when the construct is created, so it is safe to call
+	 * from the eval loop.
+	 * @return
+	 */
+	public boolean isProcedure(){
+		return procedure;
+	}
+
     @Override
     public String toString() {
         return getValue();
@@ -0,0 +1,303 @@
+package com.laytonsmith.core.constructs;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * The backing list of a normal mode {@link CArray}. As long as every element
+ * is an int, or every element is a double, the values are stored unboxed, in a
+ * long[] or double[], which takes a fraction of the memory of the equivalent
+ * Constructs. As soon as a value of any other type is added, the list switches
+ * permanently to a boxed list.
+ *
+ * Unboxed values are re-created on each get, so they lose their original code
+ * target, and only values that would be re-created exactly, with the same string
+ * value, are ever stored unboxed. The target of a value is only used to report
+ * errors about the code that created it, so an element read back out of the list
+ * reports {@link Target#UNKNOWN} instead. Keeping the original constructs around to
+ * avoid that would give back the memory this class exists to save.
+ */
+final class ConstructList extends AbstractList<Construct> implements RandomAccess, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static enum Mode {
+		/**
+		 * The list is empty, and the mode will be decided by the first value added.
+		 */
+		EMPTY,
+		LONG,
+		DOUBLE,
+		BOXED
+	}
+
+	private Mode mode = Mode.EMPTY;
+	private long[] longs;
+	private double[] doubles;
+	private ArrayList<Construct> boxed;
+	private int size = 0;
+	private int initialCapacity;
+
+	public ConstructList(){
+		this(10);
+	}
+
+	public ConstructList(int initialCapacity){
+		this.initialCapacity = Math.max(initialCapacity, 1);
+	}
+
+	public ConstructList(Collection<? extends Construct> c){
+		this(c.size());
+		if(c instanceof ConstructList){
+			ConstructList other = (ConstructList) c;
+			mode = other.mode;
+			size = other.size;
+			switch(mode){
+				case LONG:
+					longs = Arrays.copyOf(other.longs, Math.max(size, 1));
+					break;
+				case DOUBLE:
+					doubles = Arrays.copyOf(other.doubles, Math.max(size, 1));
+					break;
+				case BOXED:
+					boxed = new ArrayList<>(other.boxed);
+					break;
+			}
+		} else {
+			addAll(c);
+		}
+	}
+
+	/**
+	 * Returns the mode the value could be stored in, unboxed.
+	 */
+	private static Mode modeFor(Construct c){
+		if(c == null){
+			return Mode.BOXED;
+		}
+		//Subclasses or values with non canonical string forms (for instance 007 or 1.50)
+		//wouldn't be re-created as the same value. This runs on every add and set, so it
+		//must not build the canonical string to compare against.
+		if(c.getClass() == CInt.class){
+			if(isCanonical(((CInt) c).val, c.val())){
+				return Mode.LONG;
+			}
+		} else if(c.getClass() == CDouble.class){
+			//Only the double constructor sets this type, and it always uses the canonical form.
+			//Doubles parsed from a string are typed as ints, and stay boxed.
+			if(c.getCType() == Construct.ConstructType.DOUBLE){
+				return Mode.DOUBLE;
+			}
+		}
+		return Mode.BOXED;
+	}
+
+	/**
+	 * Returns true if the string is exactly what Long.toString would return for the value,
+	 * without creating that string.
+	 */
+	private static boolean isCanonical(long value, String s){
+		if(value == Long.MIN_VALUE){
+			//Can't be negated
+			return "-9223372036854775808".equals(s);
+		}
+		int start = 0;
+		if(value < 0){
+			if(s.isEmpty() || s.charAt(0) != '-'){
+				return false;
+			}
+			start = 1;
+			value = -value;
+		}
+		int i = s.length();
+		do {
+			i--;
+			if(i < start || s.charAt(i) != '0' + value % 10){
+				return false;
+			}
+			value /= 10;
+		} while(value != 0);
+		return i == start;
+	}
+
+	/**
+	 * Makes sure the value can be stored in the current mode, switching modes if needed.
+	 */
+	private void prepareFor(Construct c){
+		if(mode == Mode.BOXED){
+			return;
+		}
+		Mode needed = modeFor(c);
+		if(mode == Mode.EMPTY){
+			mode = needed;
+			switch(mode){
+				case LONG:
+					longs = new long[initialCapacity];
+					break;
+				case DOUBLE:
+					doubles = new double[initialCapacity];
+					break;
+				case BOXED:
+					boxed = new ArrayList<>(initialCapacity);
+					break;
+			}
+		} else if(mode != needed){
+			//Heterogeneous values, so we have to box everything from here on out
+			ArrayList<Construct> list = new ArrayList<>(Math.max(size + 1, initialCapacity));
+			for(int i = 0; i < size; i++){
+				list.add(get(i));
+			}
+			longs = null;
+			doubles = null;
+			boxed = list;
+			mode = Mode.BOXED;
+		}
+	}
+
+	private void rangeCheck(int index, int max){
+		if(index < 0 || index >= max){
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * If the list is unboxed, a new construct is returned each time, with an unknown target.
+	 */
+	@Override
+	public Construct get(int index) {
+		rangeCheck(index, size);
+		switch(mode){
+			case LONG:
+				return new CInt(longs[index], Target.UNKNOWN);
+			case DOUBLE:
+				return new CDouble(doubles[index], Target.UNKNOWN);
+			default:
+				return boxed.get(index);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Construct set(int index, Construct element) {
+		rangeCheck(index, size);
+		Construct old = get(index);
+		prepareFor(element);
+		switch(mode){
+			case LONG:
+				longs[index] = ((CInt) element).val;
+				break;
+			case DOUBLE:
+				doubles[index] = ((CDouble) element).val;
+				break;
+			default:
+				boxed.set(index, element);
+		}
+		return old;
+	}
+
+	@Override
+	public void add(int index, Construct element) {
+		rangeCheck(index, size + 1);
+		prepareFor(element);
+		switch(mode){
+			case LONG:
+				ensureCapacity(size + 1);
+				System.arraycopy(longs, index, longs, index + 1, size - index);
+				longs[index] = ((CInt) element).val;
+				break;
+			case DOUBLE:
+				ensureCapacity(size + 1);
+				System.arraycopy(doubles, index, doubles, index + 1, size - index);
+				doubles[index] = ((CDouble) element).val;
+				break;
+			default:
+				boxed.add(index, element);
+		}
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public Construct remove(int index) {
+		rangeCheck(index, size);
+		Construct old = get(index);
+		switch(mode){
+			case LONG:
+				System.arraycopy(longs, index + 1, longs, index, size - index - 1);
+				break;
+			case DOUBLE:
+				System.arraycopy(doubles, index + 1, doubles, index, size - index - 1);
+				break;
+			default:
+				boxed.remove(index);
+		}
+		size--;
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		mode = Mode.EMPTY;
+		longs = null;
+		doubles = null;
+		boxed = null;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Increases the capacity of the list, if necessary, so that it can hold at
+	 * least the given number of elements.
+	 * @param capacity
+	 */
+	public void ensureCapacity(int capacity){
+		switch(mode){
+			case EMPTY:
+				initialCapacity = Math.max(initialCapacity, capacity);
+				break;
+			case LONG:
+				if(capacity > longs.length){
+					longs = Arrays.copyOf(longs, Math.max(capacity, longs.length + (longs.length >> 1)));
+				}
+				break;
+			case DOUBLE:
+				if(capacity > doubles.length){
+					doubles = Arrays.copyOf(doubles, Math.max(capacity, doubles.length + (doubles.length >> 1)));
+				}
+				break;
+			default:
+				boxed.ensureCapacity(capacity);
+		}
+	}
+
+	/**
+	 * If the values are stored unboxed, sorts them in numeric order, and returns
+	 * true. Otherwise, nothing happens, and false is returned.
+	 * @return
+	 */
+	public boolean sortNumeric(){
+		switch(mode){
+			case LONG:
+				Arrays.sort(longs, 0, size);
+				break;
+			case DOUBLE:
+				Arrays.sort(doubles, 0, size);
+				break;
+			default:
+				return false;
+		}
+		modCount++;
+		return true;
+	}
+}
@@ -4,34 +4,68 @@ package com.laytonsmith.core.constructs;
 
 import com.laytonsmith.core.CHLog;
 import com.laytonsmith.core.LogLevel;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
 /**
- *
- *
+ * The variable table for a scope. Cloning a variable list is cheap, the underlying
+ * table is shared between the original and the clone until one of them is written
+ * to, at which point that list takes a private copy. Since IVariables are shared
+ * between clones anyways, reads never need a copy.
  */
 public class IVariableList {
-    Map<String, IVariable> varList = new HashMap<>();
+    Map<String, IVariable> varList;
+	/**
+	 * If true, varList may be referenced by another IVariableList, and must be
+	 * copied before it is modified.
+	 */
+	private boolean shared;
+
+	public IVariableList(){
+		varList = new HashMap<>();
+		shared = false;
+	}
+
+	private IVariableList(Map<String, IVariable> varList){
+		this.varList = varList;
+		this.shared = true;
+	}
+
+	/**
+	 * Returns the table, copying it first if it is shared with another list.
+	 * This must be used for all modifications.
+	 * @return
+	 */
+	private Map<String, IVariable> writable(){
+		if(shared){
+			varList = new HashMap<>(varList);
+			shared = false;
+		}
+		return varList;
+	}
 
 	/**
 	 * Removes a value from the variable table
 	 * @param name
 	 */
 	public void remove(String name){
-		varList.remove(name);
+		if(varList.containsKey(name)){
+			writable().remove(name);
+		}
 	}
 
     public void set(IVariable v){
-        varList.put(v.getName(), v);
+        writable().put(v.getName(), v);
     }
 
     public IVariable get(String name, Target t, boolean bypassAssignedCheck){
-        if(!varList.containsKey(name)){
-            this.set(new IVariable(CClassType.AUTO, name, CNull.UNDEFINED, t));
-        }
 		IVariable v = varList.get(name);
+        if(v == null){
+			v = new IVariable(CClassType.AUTO, name, CNull.UNDEFINED, t);
+            this.set(v);
+        }
 
 		// TODO: Once the compiler can handle this, this check should be moved out of here,
 		// and moved into the compiler. In strict mode, it will be a compiler error, in
@@ -77,14 +111,14 @@ public class IVariableList {
 
     @Override
     public IVariableList clone(){
-        IVariableList clone = new IVariableList();
-        clone.varList = new HashMap<String, IVariable>(varList);
-        return clone;
+		// Both lists now reference the same table, so both have to copy before writing.
+		shared = true;
+        return new IVariableList(varList);
     }
 
     //only the reflection package should be accessing this
     public Set<String> keySet() {
-        return varList.keySet();
+        return Collections.unmodifiableSet(varList.keySet());
     }
 
 
@@ -4,6 +4,7 @@ import com.laytonsmith.PureUtilities.ClassLoading.ClassDiscovery;
 import com.laytonsmith.PureUtilities.ClassLoading.ClassMirror.ClassMirror;
 import com.laytonsmith.annotations.typeof;
 import com.laytonsmith.core.natives.interfaces.Mixed;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -12,13 +13,42 @@ import java.util.Set;
  */
 public class NativeTypeList {
 
+	private static ClassDiscovery cachedDiscovery;
+	private static int cachedGeneration;
+	private static Set<String> cachedList;
+
 	public static Set<String> getNativeTypeList(){
-		Set<String> ret = new HashSet<>();
-		for(ClassMirror<Mixed> c : ClassDiscovery.getDefaultInstance().getClassesWithAnnotationThatExtend(typeof.class, Mixed.class)){
-			ret.add(c.loadAnnotation(typeof.class).value());
+		return new HashSet<>(getCachedNativeTypeList());
+	}
+
+	/**
+	 * Returns true if the given name is the name of a native type. This is
+	 * equivalent to getNativeTypeList().contains(name), but the type list is
+	 * only rebuilt when the classes known to class discovery change, so this
+	 * is cheap enough to call for every literal.
+	 * @param name
+	 * @return
+	 */
+	public static boolean isNativeType(String name){
+		return getCachedNativeTypeList().contains(name);
+	}
+
+	private static synchronized Set<String> getCachedNativeTypeList(){
+		ClassDiscovery cd = ClassDiscovery.getDefaultInstance();
+		if(cachedList == null || cachedDiscovery != cd || cachedGeneration != cd.getGeneration()){
+			//Get the generation first, so if it changes while we're building the list,
+			//the list will be rebuilt next time.
+			int generation = cd.getGeneration();
+			Set<String> ret = new HashSet<>();
+			for(ClassMirror<Mixed> c : cd.getClassesWithAnnotationThatExtend(typeof.class, Mixed.class)){
+				ret.add(c.loadAnnotation(typeof.class).value());
+			}
+			// Also add this one in
+			ret.add("mixed");
+			cachedList = Collections.unmodifiableSet(ret);
+			cachedDiscovery = cd;
+			cachedGeneration = generation;
 		}
-		// Also add this one in
-		ret.add("mixed");
-		return ret;
+		return cachedList;
 	}
 }
@@ -51,8 +51,9 @@ public class Environment implements Cloneable {
 	 * @throws InvalidEnvironmentException If the environment doesn't exist
 	 */
 	public final <T extends EnvironmentImpl> T getEnv(Class<T> clazz) throws InvalidEnvironmentException {
-		if(environments.containsKey(clazz)){
-			return (T)environments.get(clazz);
+		EnvironmentImpl env = environments.get(clazz);
+		if(env != null){
+			return (T)env;
 		} else {
 			throw new InvalidEnvironmentException(clazz.getSimpleName() + " is not included in this environment.");
 		}
@@ -91,16 +92,19 @@ public class Environment implements Cloneable {
 	}
 
 	/**
-	 * Clones this environment. Sub environments are cloned as well.
+	 * Clones this environment. Sub environments are cloned as well. Sub environments
+	 * are expected to make their own clone operation cheap, for instance, {@link GlobalEnv}
+	 * shares its procedures and variables with the clone until one of them is modified,
+	 * since this is done for every proc call and event trigger.
 	 * @return
 	 * @throws CloneNotSupportedException 
 	 */
 	@Override
 	public Environment clone() throws CloneNotSupportedException {
 		Environment clone = (Environment) super.clone();
-		clone.environments = new HashMap<>();
-		for(Class c : environments.keySet()){
-			clone.environments.put(c, environments.get(c).clone());
+		clone.environments = new HashMap<>(environments.size() * 2);
+		for(Map.Entry<Class<? extends EnvironmentImpl>, EnvironmentImpl> entry : environments.entrySet()){
+			clone.environments.put(entry.getKey(), entry.getValue().clone());
 		}
 		return clone;
 	}		
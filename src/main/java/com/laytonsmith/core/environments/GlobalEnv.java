@@ -50,6 +50,12 @@ public class GlobalEnv implements Environment.EnvironmentImpl, Cloneable {
 	private final MutableObject<File> root;
 	private final MutableObject<CClosure> uncaughtExceptionHandler = new MutableObject<>();
 	private Map<String, Procedure> procs = null;
+	/**
+	 * If true, procs may be referenced by a clone of this environment, and must
+	 * be copied before it is modified. This is what keeps cloning the environment
+	 * for proc calls and event triggers from being O(number of procs).
+	 */
+	private boolean procsShared = false;
 	private IVariableList iVariableList = null;
 	private String label = null;
 	private final DaemonManager daemonManager = new DaemonManager();
@@ -181,16 +187,21 @@ public class GlobalEnv implements Environment.EnvironmentImpl, Cloneable {
 		return ((Map<String, Object>) custom.get("custom")).get(name);
 	}
 
+	/**
+	 * Clones the environment. This is a cheap operation, the proc table and the
+	 * variable list are shared with the clone until either side modifies them.
+	 * @return
+	 * @throws CloneNotSupportedException
+	 */
 	@Override
 	public EnvironmentImpl clone() throws CloneNotSupportedException {
-		GlobalEnv clone = (GlobalEnv) super.clone();
 		if (procs != null) {
-			clone.procs = new HashMap<>(procs);
-		} else {
-			clone.procs = new HashMap<>();
+			// Set before cloning, so both copies know the table is shared
+			procsShared = true;
 		}
+		GlobalEnv clone = (GlobalEnv) super.clone();
 		if (iVariableList != null) {
-			clone.iVariableList = (IVariableList) iVariableList.clone();
+			clone.iVariableList = iVariableList.clone();
 		}
 		return clone;
 	}
@@ -228,21 +239,51 @@ public class GlobalEnv implements Environment.EnvironmentImpl, Cloneable {
 	}
 
 	/**
-	 * Returns the Map of known procedures in this environment. If the list of
-	 * procedures is currently empty, a new one is created and stored in the
-	 * environment.
+	 * Returns a read only view of the known procedures in this environment. To
+	 * add a procedure, use {@link #DefineProc(com.laytonsmith.core.Procedure)}.
 	 *
 	 * @return
 	 */
 	public Map<String, Procedure> GetProcs() {
+		if (procs == null) {
+			return Collections.emptyMap();
+		}
+		return Collections.unmodifiableMap(procs);
+	}
+
+	/**
+	 * Returns the procedure with the given name, or null if no such procedure
+	 * is known in this environment.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public Procedure GetProc(String name) {
+		if (procs == null) {
+			return null;
+		}
+		return procs.get(name);
+	}
+
+	/**
+	 * Adds (or replaces) a procedure in this environment. Clones of this environment
+	 * that were made before this call are not affected.
+	 *
+	 * @param proc
+	 */
+	public void DefineProc(Procedure proc) {
 		if (procs == null) {
 			procs = new HashMap<>();
+		} else if (procsShared) {
+			procs = new HashMap<>(procs);
 		}
-		return procs;
+		procsShared = false;
+		procs.put(proc.getName(), proc);
 	}
 
 	public void SetProcs(Map<String, Procedure> procs) {
 		this.procs = procs;
+		this.procsShared = true;
 	}
 
 	/**
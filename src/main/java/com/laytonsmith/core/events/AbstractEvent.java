@@ -82,7 +82,7 @@ public abstract class AbstractEvent implements Event, Comparable<Event> {
         }
 		ProfilePoint event = null;
 		if(env.getEnv(GlobalEnv.class).GetProfiler() != null){
-			event = env.getEnv(GlobalEnv.class).GetProfiler().start("Event " + b.getEventName() + " (defined at " + b.getTarget().toString() + ")", LogLevel.ERROR);
+			event = env.getEnv(GlobalEnv.class).GetProfiler().start(LogLevel.ERROR, "Event ", b.getEventName(), " (defined at ", b.getTarget(), ")");
 		}
 		try {
 			try {
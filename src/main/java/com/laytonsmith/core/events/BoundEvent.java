@@ -162,12 +162,16 @@ public class BoundEvent implements Comparable<BoundEvent> {
             this.priority = Priority.NORMAL;
         }
 
-        this.prefilter = new HashMap<String, Construct>();
+        //The prefilters are classified once, here, rather than each time the event is fired.
+        //Regexes and expressions are compiled the first time they are matched, since
+        //it isn't known until then how the driver will use each prefilter.
+        Map<String, Construct> prefilters = new HashMap<>();
         if (prefilter != null) {
             for (String key : prefilter.stringKeySet()) {
-                this.prefilter.put(key, prefilter.get(key, Target.UNKNOWN));
+                prefilters.put(key, prefilter.get(key, Target.UNKNOWN));
             }
         }
+        this.prefilter = new Prefilters.CompiledPrefilters(prefilters);
 
         this.originalEnv = env;
         this.tree = tree;
@@ -252,8 +256,8 @@ public class BoundEvent implements Comparable<BoundEvent> {
     //        root.setRoot(tree);
             Environment env = originalEnv.clone();
             CArray ca = new CArray(Target.UNKNOWN);
-            for (String key : activeEvent.parsedEvent.keySet()) {
-                ca.set(new CString(key, Target.UNKNOWN), activeEvent.parsedEvent.get(key), Target.UNKNOWN);
+            for (Map.Entry<String, Construct> entry : activeEvent.parsedEvent.entrySet()) {
+                ca.set(new CString(entry.getKey(), Target.UNKNOWN), entry.getValue(), Target.UNKNOWN);
             }
             if(activeEvent.parsedEvent.containsKey("player")){
                 try{
@@ -269,11 +273,11 @@ public class BoundEvent implements Comparable<BoundEvent> {
                     //or the event will add it later, manually.
                 }
             }
-            env.getEnv(GlobalEnv.class).GetVarList().set(new IVariable(new CClassType("array", Target.UNKNOWN), eventObjName, ca, Target.UNKNOWN));
+            env.getEnv(GlobalEnv.class).GetVarList().set(new IVariable(CClassType.ARRAY, eventObjName, ca, Target.UNKNOWN));
             env.getEnv(GlobalEnv.class).SetEvent(activeEvent);
             activeEvent.addHistory("Triggering bound event: " + this);
             try{
-				ProfilePoint p = env.getEnv(GlobalEnv.class).GetProfiler().start("Executing event handler for " + this.getEventName() + " defined at " + this.getTarget(), LogLevel.ERROR);
+				ProfilePoint p = env.getEnv(GlobalEnv.class).GetProfiler().start(LogLevel.ERROR, "Executing event handler for ", this.getEventName(), " defined at ", this.getTarget());
 				try {
 					this.execute(env, activeEvent);
 				} finally {
@@ -298,7 +302,7 @@ public class BoundEvent implements Comparable<BoundEvent> {
     public void manual_trigger(CArray event) throws EventException{
         try {
             Environment env = originalEnv.clone();
-            env.getEnv(GlobalEnv.class).GetVarList().set(new IVariable(new CClassType("array", Target.UNKNOWN), eventObjName, event, Target.UNKNOWN));
+            env.getEnv(GlobalEnv.class).GetVarList().set(new IVariable(CClassType.ARRAY, eventObjName, event, Target.UNKNOWN));
             Map<String, Construct> map = new HashMap<>();
             for(String key : event.stringKeySet()){
                 map.put(key, event.get(key, Target.UNKNOWN));
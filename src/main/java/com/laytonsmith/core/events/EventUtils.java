@@ -15,12 +15,11 @@ import com.laytonsmith.core.functions.Exceptions;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.EnumMap;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,8 +31,59 @@ public final class EventUtils {
 	private EventUtils() {
 	}
 
-	private static final Map<Driver, SortedSet<BoundEvent>> event_handles
-			= new EnumMap<Driver, SortedSet<BoundEvent>>(Driver.class);
+	/**
+	 * All bound events, by driver. The sets are concurrent, so they can be iterated
+	 * from async threads without being copied first.
+	 */
+	private static final ConcurrentMap<Driver, SortedSet<BoundEvent>> event_handles
+			= new ConcurrentHashMap<>();
+
+	/**
+	 * The same events as in event_handles, but indexed by event name, so that
+	 * firing an event only needs to look at the handlers bound to that particular
+	 * event, not every handler for the driver.
+	 */
+	private static final ConcurrentMap<String, SortedSet<BoundEvent>> event_handles_by_name
+			= new ConcurrentHashMap<>();
+
+	/**
+	 * All bound events, by id. This is used to check for duplicate ids, and to
+	 * find or unbind a particular event, without having to scan every handler.
+	 */
+	private static final ConcurrentMap<String, BoundEvent> event_handles_by_id
+			= new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the set for the given key, creating it if it doesn't exist yet.
+	 */
+	private static <K> SortedSet<BoundEvent> GetOrCreate(ConcurrentMap<K, SortedSet<BoundEvent>> map, K key) {
+		SortedSet<BoundEvent> set = map.get(key);
+		if (set == null) {
+			set = new ConcurrentSkipListSet<>();
+			SortedSet<BoundEvent> existing = map.putIfAbsent(key, set);
+			if (existing != null) {
+				set = existing;
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Removes the event from all the indexes.
+	 *
+	 * @param b
+	 */
+	private static void Remove(BoundEvent b) {
+		event_handles_by_id.remove(b.getId(), b);
+		SortedSet<BoundEvent> set = event_handles.get(b.getDriver());
+		if (set != null) {
+			set.remove(b);
+		}
+		set = event_handles_by_name.get(b.getEventName());
+		if (set != null) {
+			set.remove(b);
+		}
+	}
 
 	/**
 	 * Registers a BoundEvent.
@@ -46,22 +96,16 @@ public final class EventUtils {
 		if (event == null) {
 			throw new EventException("The event type \"" + b.getEventName() + "\" could not be found.");
 		}
-		if (!event_handles.containsKey(event.driver())) {
-			event_handles.put(event.driver(), new TreeSet<BoundEvent>());
-		}
 		//Check for duplicate IDs
-		for (Set<BoundEvent> s : event_handles.values()) {
-			for (BoundEvent bb : s) {
-				if (bb.getId().equals(b.getId())) {
-					throw new ConfigRuntimeException("Cannot have duplicate IDs defined."
-							+ " (Tried to define an event handler with id \"" + b.getId() + "\" at " + b.getTarget() + ","
-							+ " but it has already been defined at " + bb.getTarget() + ")",
-							Exceptions.ExceptionType.BindException, b.getTarget());
-				}
-			}
+		BoundEvent bb = event_handles_by_id.putIfAbsent(b.getId(), b);
+		if (bb != null) {
+			throw new ConfigRuntimeException("Cannot have duplicate IDs defined."
+					+ " (Tried to define an event handler with id \"" + b.getId() + "\" at " + b.getTarget() + ","
+					+ " but it has already been defined at " + bb.getTarget() + ")",
+					Exceptions.ExceptionType.BindException, b.getTarget());
 		}
-		SortedSet<BoundEvent> set = event_handles.get(event.driver());
-		set.add(b);
+		GetOrCreate(event_handles, event.driver()).add(b);
+		GetOrCreate(event_handles_by_name, b.getEventName()).add(b);
 		try {
 			event.bind(b);
 		} catch (UnsupportedOperationException e) {
@@ -69,57 +113,36 @@ public final class EventUtils {
 	}
 
 	/**
-	 * Looks through all the events for an event with id <code>id</code>. Once
-	 * found, removes it. If no event with that id is registered, nothing
-	 * happens.
+	 * Removes the event with id <code>id</code>. If no event with that id is
+	 * registered, nothing happens. O(log n)
 	 *
 	 * @param id
 	 */
 	public static void UnregisterEvent(String id) {
-		for (Driver type : event_handles.keySet()) {
-			SortedSet<BoundEvent> set = event_handles.get(type);
-			Iterator<BoundEvent> i = set.iterator();
-			while (i.hasNext()) {
-				BoundEvent b = i.next();
-				if (b.getId().equals(id)) {
-					i.remove();
-					return;
-				}
-			}
+		BoundEvent b = GetEventById(id);
+		if (b != null) {
+			Remove(b);
 		}
 	}
 
 	/**
-	 * Returns the BoundEvent, by id.
+	 * Returns the BoundEvent, by id. O(1)
 	 *
 	 * @param id
-	 * @return
+	 * @return The bound event, or null if no event with that id is registered.
 	 */
 	public static BoundEvent GetEventById(String id) {
-		for (Driver type : event_handles.keySet()) {
-			SortedSet<BoundEvent> set = event_handles.get(type);
-			for (BoundEvent b : set) {
-				if (b.getId().equals(id)) {
-					return b;
-				}
-			}
-		}
-		return null;
+		return event_handles_by_id.get(id);
 	}
 
 	/**
 	 * Unregisters all event handlers. Runs in O(n)
 	 */
 	public static void UnregisterAll(String name) {
-		for (Driver type : event_handles.keySet()) {
-			SortedSet<BoundEvent> set = event_handles.get(type);
-			Iterator<BoundEvent> i = set.iterator();
-			while (i.hasNext()) {
-				BoundEvent b = i.next();
-				if (b.getEventObjName().equals(name)) {
-					i.remove();
-					return;
-				}
+		for (BoundEvent b : event_handles_by_id.values()) {
+			if (b.getEventObjName().equals(name)) {
+				Remove(b);
+				return;
 			}
 		}
 	}
@@ -130,10 +153,13 @@ public final class EventUtils {
 	 */
 	public static void UnregisterAll() {
 		event_handles.clear();
+		event_handles_by_name.clear();
+		event_handles_by_id.clear();
 	}
 
 	/**
-	 * Returns all events driven by type. O(1).
+	 * Returns all events driven by type. O(1). The returned set is safe to
+	 * iterate while events are being bound or unbound on other threads.
 	 *
 	 * @param type
 	 * @return
@@ -142,6 +168,17 @@ public final class EventUtils {
 		return event_handles.get(type);
 	}
 
+	/**
+	 * Returns all events bound to the event with the given name. O(1). The returned
+	 * set is safe to iterate while events are being bound or unbound on other threads.
+	 *
+	 * @param eventName
+	 * @return The bound events, or null if nothing was ever bound to this event.
+	 */
+	public static SortedSet<BoundEvent> GetEvents(String eventName) {
+		return event_handles_by_name.get(eventName);
+	}
+
 	public static void ManualTrigger(String eventName, CArray object, Target t, boolean serverWide) {
 		for (Driver type : event_handles.keySet()) {
 			SortedSet<BoundEvent> toRun = new TreeSet<>();
@@ -193,13 +230,11 @@ public final class EventUtils {
 	 */
 	public static SortedSet<BoundEvent> GetMatchingEvents(Driver type, String eventName, BindableEvent e, Event driver) {
 		SortedSet<BoundEvent> toRun = new TreeSet<>();
-		//This is the set of bounded events of this driver type.
-		//We must now look through the bound events to see if they are
-		//the eventName, and if so, we will also run the prefilter.
-		SortedSet<BoundEvent> bounded = GetEvents(type);
+		//This is the set of events bound to this particular event name, so
+		//only the prefilters need to be run. The set is concurrent, so it can be
+		//safely iterated with async threads, without copying it first.
+		SortedSet<BoundEvent> bounded = GetEvents(eventName);
 		if (bounded != null) {
-			//Wrap this in a new set, so we can safely iterate it with async threads
-			bounded = new TreeSet<>(bounded);
 			for (BoundEvent b : bounded) {
 				try {
 					boolean matches = false;
@@ -212,7 +247,7 @@ public final class EventUtils {
 						//We use the environment from the bound event.
 						ConfigRuntimeException.HandleUncaughtException(ex, b.getEnvironment());
 					}
-					if (b.getEventName().equals(eventName) && matches) {
+					if (matches) {
 						toRun.add(b);
 					}
 				} catch (PrefilterNonMatchException ex) {
@@ -226,8 +261,8 @@ public final class EventUtils {
 	/**
 	 * Triggers an event by name. The event name is the primary filter for this
 	 * event, but to increase event lookup efficiency, the driver is required.
-	 * This will run in O(n), where n is the number of bound events driven by
-	 * type <code>type</code>.
+	 * This will run in O(n), where n is the number of events bound to
+	 * <code>eventName</code>.
 	 *
 	 * @param type
 	 * @param eventName
@@ -274,11 +309,8 @@ public final class EventUtils {
 
 	public static Construct DumpEvents() {
 		CArray ca = new CArray(Target.UNKNOWN);
-		for (Driver type : event_handles.keySet()) {
-			SortedSet<BoundEvent> set = event_handles.get(type);
-			Iterator<BoundEvent> i = set.iterator();
-			while (i.hasNext()) {
-				BoundEvent b = i.next();
+		for (SortedSet<BoundEvent> set : event_handles.values()) {
+			for (BoundEvent b : set) {
 				ca.push(new CString(b.toString() + ":" + b.getFile() + ":" + b.getLineNum(), Target.UNKNOWN));
 			}
 		}
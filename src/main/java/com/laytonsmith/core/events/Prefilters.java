@@ -16,7 +16,10 @@ import com.laytonsmith.core.exceptions.PrefilterNonMatchException;
 import com.laytonsmith.core.functions.Exceptions.ExceptionType;
 import com.sk89q.worldedit.expression.Expression;
 import com.sk89q.worldedit.expression.ExpressionException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
  *
@@ -99,65 +102,76 @@ public final class Prefilters {
      * Given a prototype and the actual user provided value, determines if it matches.
      * If it doesn't, it throws an exception. If the value is not provided, or it does
      * match, it returns void, which means that the test passed, and the event matches.
+     * If the map is a {@link CompiledPrefilters} (which is what BoundEvents provide), the
+     * work of parsing the prefilter is only done once, otherwise it is done on each call.
      */
     public static void match(Map<String, Construct> map, String key,
             Construct actualValue, PrefilterType type) throws PrefilterNonMatchException{
-        if(map.containsKey(key)){
-            switch(type){
-                case ITEM_MATCH:
-                    ItemMatch(map.get(key), actualValue);
-                    break;
-                case STRING_MATCH:
-                    StringMatch(map.get(key).val(), actualValue.val());
-                    break;
-                case MATH_MATCH:
-                    MathMatch(map.get(key), actualValue);
-                    break;
-                case EXPRESSION:
-                    ExpressionMatch(MathReplace(key, map.get(key), actualValue), actualValue);
-                    break;
-                case REGEX:
-                    RegexMatch(map.get(key), actualValue);
-                    break;
-                case MACRO:
-                    MacroMatch(key, map.get(key), actualValue);
-					break;
-				case BOOLEAN_MATCH:
-					BooleanMatch(map.get(key), actualValue);
-					break;
-				case LOCATION_MATCH:
-					LocationMatch(map.get(key), actualValue);
-					break;
-            }
+        Construct prefilter = map.get(key);
+        if(prefilter == null){
+            return;
+        }
+        CompiledPrefilter compiled;
+        if(map instanceof CompiledPrefilters){
+            compiled = ((CompiledPrefilters)map).getCompiled(key, prefilter);
+        } else {
+            compiled = new CompiledPrefilter(key, prefilter);
+        }
+        switch(type){
+            case ITEM_MATCH:
+                ItemMatch(compiled, actualValue);
+                break;
+            case STRING_MATCH:
+                StringMatch(compiled.value, actualValue.val());
+                break;
+            case MATH_MATCH:
+                MathMatch(compiled, actualValue);
+                break;
+            case EXPRESSION:
+                ExpressionMatch(compiled, actualValue);
+                break;
+            case REGEX:
+                RegexMatch(compiled, actualValue);
+                break;
+            case MACRO:
+                MacroMatch(compiled, actualValue);
+                break;
+            case BOOLEAN_MATCH:
+                BooleanMatch(compiled, actualValue);
+                break;
+            case LOCATION_MATCH:
+                LocationMatch(compiled, actualValue);
+                break;
         }
     }
-    
-    private static void ItemMatch(Construct item1, Construct item2) throws PrefilterNonMatchException{
-        String i1 = item1.val();
-        String i2 = item2.val();
-        if(item1.val().contains(":")){
-            String[] split = item1.val().split(":");
-            i1 = split[0].trim();
-        }
-        if(item2.val().contains(":")){
-            String[] split = item2.val().split(":");
-            i2 = split[0].trim();
-        }
-        if(!i1.trim().equalsIgnoreCase(i2.trim())){
+
+    private static void ItemMatch(CompiledPrefilter item1, Construct item2) throws PrefilterNonMatchException{
+        if(!item1.getItemId().equalsIgnoreCase(ItemId(item2.val()))){
             throw new PrefilterNonMatchException();
         }
     }
 
-	private static void BooleanMatch(Construct bool1, Construct bool2) throws PrefilterNonMatchException {
-		if (Static.getBoolean(bool1) != Static.getBoolean(bool2)) {
+    /**
+     * Returns the item id part of item notation, that is, everything before the data value.
+     */
+    private static String ItemId(String item){
+        int colon = item.indexOf(':');
+        if(colon != -1){
+            item = item.substring(0, colon);
+        }
+        return item.trim();
+    }
+
+	private static void BooleanMatch(CompiledPrefilter bool1, Construct bool2) throws PrefilterNonMatchException {
+		if (bool1.getBoolean() != Static.getBoolean(bool2)) {
 			throw new PrefilterNonMatchException();
 		}
 	}
 
-	private static void LocationMatch(Construct location1, Construct location2) throws PrefilterNonMatchException {
-		MCLocation l1 = ObjectGenerator.GetGenerator().location(location1, null, location1.getTarget());
+	private static void LocationMatch(CompiledPrefilter location1, Construct location2) throws PrefilterNonMatchException {
+		MCLocation l1 = location1.getLocation();
 		MCLocation l2 = ObjectGenerator.GetGenerator().location(location2, null, Target.UNKNOWN);
-		if ((!l1.getWorld().equals(l2.getWorld())) || (l1.getBlockX() != l2.getBlockX()) || (l1.getBlockY() != l2.getBlockY()) || (l1.getBlockZ() != l2.getBlockZ())) {
+		if ((!l1.getWorld().getName().equals(l2.getWorld().getName())) || (l1.getBlockX() != l2.getBlockX()) || (l1.getBlockY() != l2.getBlockY()) || (l1.getBlockZ() != l2.getBlockZ())) {
 			throw new PrefilterNonMatchException();
 		}
 	}
@@ -167,10 +181,13 @@ public final class Prefilters {
             throw new PrefilterNonMatchException();
         }
     }
-    
-    private static void MathMatch(Construct one, Construct two) throws PrefilterNonMatchException{
+
+    private static void MathMatch(CompiledPrefilter one, Construct two) throws PrefilterNonMatchException{
+        Double dOne = one.getNumber();
+        if(dOne == null){
+            throw new PrefilterNonMatchException();
+        }
         try{
-            double dOne = Static.getNumber(one, Target.UNKNOWN);
             double dTwo = Static.getNumber(two, Target.UNKNOWN);
             if(dOne != dTwo){
                 throw new PrefilterNonMatchException();
@@ -179,14 +196,53 @@ public final class Prefilters {
             throw new PrefilterNonMatchException();
         }
     }
-    
+
+    private static void ExpressionMatch(CompiledPrefilter expression, Construct dvalue) throws PrefilterNonMatchException{
+        if(!expression.isExpression){
+            throw new ConfigRuntimeException("Prefilter expecting expression type, and \""
+                    + expression.value + "\" does not follow expression format. "
+                    + "(Did you surround it in parenthesis?)",
+                    ExceptionType.FormatException, expression.source.getTarget());
+        }
+        Expression exp = expression.getExpression();
+        double actual;
+        try{
+            actual = Static.getDouble(dvalue, Target.UNKNOWN);
+        } catch(ConfigRuntimeException e){
+            exp = null;
+            actual = 0;
+        }
+        if(exp == null){
+            //Either the expression can't use the key as a variable, or the value isn't a number, so
+            //do it the old fashioned way, by replacing the key in the expression with the value.
+            ExpressionMatch(MathReplace(expression.key, expression.source, dvalue), dvalue);
+            return;
+        }
+        double val;
+        try{
+            //Expressions store the variable values internally, so they can't be evaluated concurrently
+            synchronized(exp){
+                val = exp.evaluate(actual);
+            }
+        } catch(ExpressionException e){
+            throw new ConfigRuntimeException("Your expression is invalidly formatted",
+                    ExceptionType.FormatException, expression.source.getTarget());
+        }
+        if(expression.inequalityMode){
+            if(val == 0){
+                throw new PrefilterNonMatchException();
+            }
+        } else {
+            if(val != actual){
+                throw new PrefilterNonMatchException();
+            }
+        }
+    }
+
     private static void ExpressionMatch(Construct expression, Construct dvalue) throws PrefilterNonMatchException{
-        if(expression.val().matches("\\(.*\\)")){
+        if(EXPRESSION_FORMAT.matcher(expression.val()).matches()){
             String exp = expression.val().substring(1, expression.val().length() - 1);
-            boolean inequalityMode = false;
-            if(exp.contains("<") || exp.contains(">") || exp.contains("==")){
-                inequalityMode = true;
-            }
+            boolean inequalityMode = IsInequality(exp);
             try{
                 double val = Expression.compile(exp).evaluate();
                 if(inequalityMode){
@@ -209,30 +265,162 @@ public final class Prefilters {
                     ExceptionType.FormatException, expression.getTarget());
         }
     }
-    
-    private static void RegexMatch(Construct expression, Construct value) throws PrefilterNonMatchException{
-        if(expression.val().matches("/.*/")){
-            String exp = expression.val().substring(1, expression.val().length() - 1);
-            if(!value.val().matches(exp)){
+
+    private static boolean IsInequality(String exp){
+        return exp.contains("<") || exp.contains(">") || exp.contains("==");
+    }
+
+    private static void RegexMatch(CompiledPrefilter expression, Construct value) throws PrefilterNonMatchException{
+        if(expression.isRegex){
+            if(!expression.getPattern().matcher(value.val()).matches()){
                 throw new PrefilterNonMatchException();
             }
         } else {
             throw new ConfigRuntimeException("Prefilter expecting regex type, and \"" 
-                    + expression.val() + "\" does not follow regex format", ExceptionType.FormatException, expression.getTarget());
+                    + expression.value + "\" does not follow regex format", ExceptionType.FormatException, expression.source.getTarget());
         }
     }
-    
-    private static void MacroMatch(String key, Construct expression, Construct value) throws PrefilterNonMatchException{
-        if(expression.val().matches("\\(.*\\)")){
-            ExpressionMatch(MathReplace(key, expression, value), value);
-        } else if(expression.val().matches("/.*/")){
+
+    private static void MacroMatch(CompiledPrefilter expression, Construct value) throws PrefilterNonMatchException{
+        if(expression.isExpression){
+            ExpressionMatch(expression, value);
+        } else if(expression.isRegex){
             RegexMatch(expression, value);
         } else {
-            StringMatch(expression.val(), value.val());
+            StringMatch(expression.value, value.val());
         }
     }
-    
+
     private static Construct MathReplace(String key, Construct expression, Construct value){
         return new CString(expression.val().replaceAll(key, value.val()), expression.getTarget());
     }
+
+    private static final Pattern EXPRESSION_FORMAT = Pattern.compile("\\(.*\\)");
+    private static final Pattern REGEX_FORMAT = Pattern.compile("/.*/");
+
+    /**
+     * The parsed form of a single prefilter. What kind of prefilter the value is gets determined
+     * up front, and the more expensive forms (the regex, the expression, the parsed number, etc)
+     * are created the first time they are needed, and then reused. Since the same prefilter may be
+     * matched from several threads, these are immutable once created, with the exception of the
+     * expression, which is synchronized on during evaluation.
+     */
+    private static final class CompiledPrefilter {
+        private final String key;
+        private final Construct source;
+        private final String value;
+        private final boolean isExpression;
+        private final boolean isRegex;
+        private final boolean inequalityMode;
+
+        private volatile Pattern pattern;
+        private volatile Expression expression;
+        private volatile boolean expressionCompiled = false;
+        private volatile String itemId;
+        private volatile Double number;
+        private volatile boolean numberParsed = false;
+        private volatile Boolean bool;
+        private volatile MCLocation location;
+
+        private CompiledPrefilter(String key, Construct source){
+            this.key = key;
+            this.source = source;
+            this.value = source.val();
+            this.isExpression = EXPRESSION_FORMAT.matcher(value).matches();
+            this.isRegex = REGEX_FORMAT.matcher(value).matches();
+            this.inequalityMode = isExpression && IsInequality(value);
+        }
+
+        Pattern getPattern(){
+            if(pattern == null){
+                pattern = Pattern.compile(value.substring(1, value.length() - 1));
+            }
+            return pattern;
+        }
+
+        /**
+         * Returns the expression, compiled with the key as a variable, or null if
+         * it can't be compiled that way.
+         */
+        Expression getExpression(){
+            if(!expressionCompiled){
+                try{
+                    expression = Expression.compile(value.substring(1, value.length() - 1), key);
+                } catch(ExpressionException e){
+                    expression = null;
+                }
+                expressionCompiled = true;
+            }
+            return expression;
+        }
+
+        String getItemId(){
+            if(itemId == null){
+                itemId = ItemId(value);
+            }
+            return itemId;
+        }
+
+        /**
+         * Returns the numeric value of the prefilter, or null if it isn't a number.
+         */
+        Double getNumber(){
+            if(!numberParsed){
+                try{
+                    number = Static.getNumber(source, Target.UNKNOWN);
+                } catch(ConfigRuntimeException e){
+                    number = null;
+                }
+                numberParsed = true;
+            }
+            return number;
+        }
+
+        boolean getBoolean(){
+            if(bool == null){
+                bool = Static.getBoolean(source);
+            }
+            return bool;
+        }
+
+        MCLocation getLocation(){
+            if(location == null){
+                location = ObjectGenerator.GetGenerator().location(source, null, source.getTarget());
+            }
+            return location;
+        }
+    }
+
+    /**
+     * A prefilter map, which also keeps the parsed form of each of its prefilters, so that
+     * matching an event against it doesn't need to re-parse the user's prefilters each time.
+     * BoundEvent creates one of these when the event is bound, and it is otherwise used
+     * like a normal map. The type specific parsing, such as compiling a regex, is still
+     * done lazily, on the first match, since the prefilter type is only known to the driver.
+     */
+    public static final class CompiledPrefilters extends HashMap<String, Construct> {
+
+        private final Map<String, CompiledPrefilter> compiled = new ConcurrentHashMap<>();
+
+        public CompiledPrefilters(){
+            super();
+        }
+
+        public CompiledPrefilters(Map<String, Construct> prefilters){
+            super(prefilters);
+            for(Map.Entry<String, Construct> entry : prefilters.entrySet()){
+                compiled.put(entry.getKey(), new CompiledPrefilter(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        private CompiledPrefilter getCompiled(String key, Construct prefilter){
+            CompiledPrefilter c = compiled.get(key);
+            if(c == null || c.source != prefilter){
+                //Either it was added after the fact, or it was changed
+                c = new CompiledPrefilter(key, prefilter);
+                compiled.put(key, c);
+            }
+            return c;
+        }
+    }
 }
@@ -14,5 +14,15 @@ public class PrefilterNonMatchException extends Exception {
      */
     public PrefilterNonMatchException() {
     }
+
+    /**
+     * This exception is used purely for flow control, and is thrown for every
+     * bound event that doesn't match, so the stacktrace is never filled in.
+     * @return
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
     
 }
@@ -35,6 +35,7 @@ import java.util.Map;
 public abstract class AbstractFunction implements Function {
 
 	private boolean shouldProfile = true;
+	private String profileName = null;
 
 	protected AbstractFunction() {
 		//If we have the noprofile annotation, cache that we don't want to profile.
@@ -200,6 +201,14 @@ public abstract class AbstractFunction implements Function {
 				+ (args.size() == 1 ? "" : "ren") + " not shown>)";
 	}
 
+	@Override
+	public String profileName() {
+		if(profileName == null){
+			profileName = "Executing function: " + this.getName();
+		}
+		return profileName;
+	}
+
 	@Override
 	public PackagePermission getPermission() {
 		return PackagePermission.NO_PERMISSIONS_NEEDED;
@@ -62,7 +62,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
@@ -658,12 +657,20 @@ public class DataHandling {
 
 					//Clone the set, so changes in the array won't cause changes in
 				//the iteration order.
-				Set<Construct> keySet = new LinkedHashSet<>(one.keySet());
+				List<String> keySet;
+				if (one instanceof CArray) {
+					keySet = new ArrayList<>(((CArray) one).keyView());
+				} else {
+					keySet = new ArrayList<>();
+					for (Construct c : one.keySet()) {
+						keySet.add(c.val());
+					}
+				}
 					//Continues in an associative array are slightly different, so
 				//we have to track this differently. Basically, we skip the
 				//next element in the array key set.
 				int continues = 0;
-				for (Construct c : keySet) {
+				for (String c : keySet) {
 					if (continues > 0) {
 							//If continues is greater than 0, continue in the loop,
 						//however many times necessary to make it 0.
@@ -672,10 +679,10 @@ public class DataHandling {
 					}
 					//If the key isn't null, set that in the variable table.
 					if (kkey != null) {
-						env.getEnv(GlobalEnv.class).GetVarList().set(new IVariable(kkey.getDefinedType(), kkey.getName(), c, t));
+						env.getEnv(GlobalEnv.class).GetVarList().set(new IVariable(kkey.getDefinedType(), kkey.getName(), new CString(c, t), t));
 					}
 					//Set the value in the variable table
-					env.getEnv(GlobalEnv.class).GetVarList().set(new IVariable(two.getDefinedType(), two.getName(), one.get(c.val(), t), t));
+					env.getEnv(GlobalEnv.class).GetVarList().set(new IVariable(two.getDefinedType(), two.getName(), one.get(c, t), t));
 					try {
 						//Execute the code
 						parent.eval(code, env);
@@ -2040,7 +2047,7 @@ public class DataHandling {
 		@Override
 		public Construct execs(Target t, Environment env, Script parent, ParseTree... nodes) {
 			Procedure myProc = getProcedure(t, env, parent, nodes);
-			env.getEnv(GlobalEnv.class).GetProcs().put(myProc.getName(), myProc);
+			env.getEnv(GlobalEnv.class).DefineProc(myProc);
 			return CVoid.VOID;
 		}
 
@@ -2377,7 +2384,7 @@ public class DataHandling {
 			if (args.length < 1) {
 				throw new ConfigRuntimeException("Expecting at least one argument to " + getName(), ExceptionType.InsufficientArgumentsException, t);
 			}
-			Procedure proc = env.getEnv(GlobalEnv.class).GetProcs().get(args[0].val());
+			Procedure proc = env.getEnv(GlobalEnv.class).GetProc(args[0].val());
 			if (proc != null) {
 				List<Construct> vars = new ArrayList<Construct>(Arrays.asList(args));
 				vars.remove(0);
@@ -2505,7 +2512,7 @@ public class DataHandling {
 
 		@Override
 		public Construct exec(Target t, Environment env, Construct... args) {
-			return CBoolean.get(env.getEnv(GlobalEnv.class).GetProcs().get(args[0].val()) != null);
+			return CBoolean.get(env.getEnv(GlobalEnv.class).GetProc(args[0].val()) != null);
 		}
 	}
 
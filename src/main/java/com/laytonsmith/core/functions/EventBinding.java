@@ -27,7 +27,6 @@ import com.laytonsmith.core.environments.GlobalEnv;
 import com.laytonsmith.core.events.BoundEvent;
 import com.laytonsmith.core.events.BoundEvent.ActiveEvent;
 import com.laytonsmith.core.events.BoundEvent.Priority;
-import com.laytonsmith.core.events.Driver;
 import com.laytonsmith.core.events.Event;
 import com.laytonsmith.core.events.EventList;
 import com.laytonsmith.core.events.EventUtils;
@@ -887,17 +886,7 @@ public class EventBinding {
 		@Override
 		public Construct exec(Target t, Environment environment, Construct... args) throws ConfigRuntimeException {
 			String id = args[0].val();
-			for (Driver d : Driver.values()) {
-				Set<BoundEvent> events = EventUtils.GetEvents(d);
-				if (events != null) {
-					for (BoundEvent b : events) {
-						if (b.getId().equals(id)) {
-							return CBoolean.TRUE;
-						}
-					}
-				}
-			}
-			return CBoolean.FALSE;
+			return CBoolean.get(EventUtils.GetEventById(id) != null);
 		}
 
 		@Override
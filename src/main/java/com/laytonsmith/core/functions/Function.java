@@ -127,6 +127,15 @@ public interface Function extends FunctionBase, Documentation {
 	 */
 	public String profileMessageS(List<ParseTree> args);
 
+	/**
+	 * Returns the name to use when this function gets profiled in aggregate mode, where
+	 * all calls are counted together, so the arguments are not part of it. This is
+	 * called for every profiled call, so implementations should not build a new string
+	 * each time.
+	 * @return
+	 */
+	public String profileName();
+
     /**
      * In addition to being a function, an object may also be a code branch, that is,
      * it conditionally will execute some of its arguments.
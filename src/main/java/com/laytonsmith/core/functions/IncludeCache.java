@@ -2,6 +2,7 @@
 
 package com.laytonsmith.core.functions;
 
+import com.laytonsmith.PureUtilities.Common.StringUtils;
 import com.laytonsmith.PureUtilities.ZipReader;
 import com.laytonsmith.core.CHLog;
 import com.laytonsmith.core.LogLevel;
@@ -14,31 +15,56 @@ import com.laytonsmith.core.exceptions.ConfigCompileGroupException;
 import com.laytonsmith.core.exceptions.ConfigRuntimeException;
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- *
+ * Caches the compiled include files. Entries are kept across reloads, and are only
+ * removed when the file they were compiled from has actually changed, or when the
+ * extensions are reloaded, since the compiled trees are bound to their functions.
  */
 public class IncludeCache {
     private static final CHLog.Tags TAG = CHLog.Tags.INCLUDES;
-    private static HashMap<File, ParseTree> cache = new HashMap<File, ParseTree>();
+    private static final ConcurrentMap<File, CacheEntry> cache = new ConcurrentHashMap<File, CacheEntry>();
 
-    private static void add(File file, ParseTree tree){
-        cache.put(file, tree);
+    /**
+     * A compiled include, along with what is needed to tell if its file has changed.
+     */
+    private static class CacheEntry {
+        final ParseTree tree;
+        final String hash;
+        final long lastModified;
+        final long length;
+
+        CacheEntry(ParseTree tree, String hash, long lastModified, long length){
+            this.tree = tree;
+            this.hash = hash;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
     }
 
     public static ParseTree get(File file, Target t){
         CHLog.GetLogger().Log(TAG, LogLevel.DEBUG, "Loading " + file.getAbsolutePath(), t);
-        if(!cache.containsKey(file)){
+        CacheEntry entry = cache.get(file);
+        if(entry == null){
             CHLog.GetLogger().Log(TAG, LogLevel.VERBOSE, "Cache does not already contain include file, compiling, then caching.", t);
             //We have to pull the file from the FS, and compile it.
             if(Security.CheckSecurity(file.getAbsolutePath())){
                 CHLog.GetLogger().Log(TAG, LogLevel.VERBOSE, "Security check passed", t);
+                //Get these before reading, so a change made while reading is noticed later
+                long lastModified = file.lastModified();
+                long length = file.length();
                 try {
                     String s = new ZipReader(file).getFileContents();
                     ParseTree tree = MethodScriptCompiler.compile(MethodScriptCompiler.lex(s, file, true));
                     CHLog.GetLogger().Log(TAG, LogLevel.VERBOSE, "Compilation succeeded, adding to cache.", t);
-                    IncludeCache.add(file, tree);
+                    entry = new CacheEntry(tree, hash(s), lastModified, length);
+                    cache.put(file, entry);
                 } catch (ConfigCompileException ex) {
                     throw new ConfigRuntimeException("There was a compile error when trying to include the script at " + file
                             + "\n" + ex.getMessage() + " :: " + file.getName() + ":" + ex.getLineNum(),
@@ -60,11 +86,55 @@ public class IncludeCache {
             }
         }
         CHLog.GetLogger().Log(TAG, LogLevel.INFO, "Returning " + file.getAbsolutePath() + " from cache", t);
-        return cache.get(file);
+        return entry.tree;
+    }
+
+    /**
+     * Removes the cached includes whose files have changed, so that only those are
+     * compiled again the next time they are included. Files whose modification time or
+     * size has changed (and files inside of zips, which can't be checked that way) are
+     * read in again, but are only removed if their contents are actually different.
+     * Includes that are no longer allowed by the base-dir setting are removed as well.
+     */
+    public static void invalidateChanged(){
+        CHLog.GetLogger().Log(TAG, LogLevel.INFO, "Checking include cache for changed files", Target.UNKNOWN);
+        for(Map.Entry<File, CacheEntry> e : cache.entrySet()){
+            File file = e.getKey();
+            CacheEntry entry = e.getValue();
+            if(!Security.CheckSecurity(file.getAbsolutePath())){
+                cache.remove(file, entry);
+                continue;
+            }
+            long lastModified = file.lastModified();
+            long length = file.length();
+            if(file.exists() && lastModified == entry.lastModified && length == entry.length){
+                continue;
+            }
+            try {
+                if(hash(new ZipReader(file).getFileContents()).equals(entry.hash)){
+                    cache.replace(file, entry, new CacheEntry(entry.tree, entry.hash, lastModified, length));
+                    continue;
+                }
+            } catch (IOException ex) {
+                //It will fail again when it is included, which is where the error belongs
+            }
+            CHLog.GetLogger().Log(TAG, LogLevel.VERBOSE, file.getAbsolutePath() + " has changed, removing it from the cache", Target.UNKNOWN);
+            cache.remove(file, entry);
+        }
     }
 
     public static void clearCache(){
         CHLog.GetLogger().Log(TAG, LogLevel.INFO, "Clearing include cache", Target.UNKNOWN);
         cache.clear();
     }
+
+    private static String hash(String contents){
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA1");
+            digest.update(contents.getBytes("UTF-8"));
+            return StringUtils.toHex(digest.digest());
+        } catch (NoSuchAlgorithmException | UnsupportedEncodingException ex) {
+            throw new Error(ex);
+        }
+    }
 }
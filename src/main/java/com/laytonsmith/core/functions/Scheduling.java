@@ -33,6 +33,7 @@ import com.laytonsmith.core.exceptions.ConfigRuntimeException;
 import com.laytonsmith.core.exceptions.ProgramFlowManipulationException;
 import com.laytonsmith.core.functions.Exceptions.ExceptionType;
 import com.laytonsmith.core.profiler.ProfilePoint;
+import com.laytonsmith.core.profiler.Profiler;
 import com.laytonsmith.core.taskmanager.CoreTaskType;
 import com.laytonsmith.core.taskmanager.TaskManager;
 import com.laytonsmith.core.taskmanager.TaskState;
@@ -54,6 +55,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
@@ -276,7 +282,11 @@ public class Scheduling {
 				public void run() {
 					c.getEnv().getEnv(GlobalEnv.class).SetCustom("timeout-id", ret.get());
 					try {
-						ProfilePoint p = environment.getEnv(GlobalEnv.class).GetProfiler().start("Executing timeout with id " + ret.get() + " (defined at " + t.toString() + ")", LogLevel.ERROR);
+						Profiler profiler = environment.getEnv(GlobalEnv.class).GetProfiler();
+						//When aggregating, the id would make each timeout its own entry, so only the definition is used
+						ProfilePoint p = profiler.isAggregating()
+								? profiler.start(LogLevel.ERROR, "Executing timeout defined at ", t)
+								: profiler.start(LogLevel.ERROR, "Executing timeout with id ", ret.get(), " (defined at ", t, ")");
 						try {
 							c.execute();
 						} finally {
@@ -367,7 +377,11 @@ public class Scheduling {
 					c.getEnv().getEnv(GlobalEnv.class).SetCustom("timeout-id", ret.get());
 					taskManager.getTask(CoreTaskType.TIMEOUT, ret.get()).changeState(TaskState.RUNNING);
 					try {
-						ProfilePoint p = environment.getEnv(GlobalEnv.class).GetProfiler().start("Executing timeout with id " + ret.get() + " (defined at " + t.toString() + ")", LogLevel.ERROR);
+						Profiler profiler = environment.getEnv(GlobalEnv.class).GetProfiler();
+						//When aggregating, the id would make each timeout its own entry, so only the definition is used
+						ProfilePoint p = profiler.isAggregating()
+								? profiler.start(LogLevel.ERROR, "Executing timeout defined at ", t)
+								: profiler.start(LogLevel.ERROR, "Executing timeout with id ", ret.get(), " (defined at ", t, ")");
 						try {
 							c.execute();
 						} finally {
@@ -664,8 +678,17 @@ public class Scheduling {
 
 		private static Thread cronThread = null;
 		private static final Object cronThreadLock = new Object();
-		private static final Map<Integer, CronFormat> cronJobs = new HashMap<Integer, CronFormat>();
+		private static final ConcurrentMap<Integer, CronFormat> cronJobs = new ConcurrentHashMap<Integer, CronFormat>();
+		/**
+		 * The next run of each job, soonest first. A job's run is removed when the job is stopped.
+		 */
+		private static final DelayQueue<CronRun> cronQueue = new DelayQueue<CronRun>();
 		private static final AtomicInteger jobIDs = new AtomicInteger(1);
+		/**
+		 * The longest the cron thread sleeps at once, in ms. Run times are wall clock
+		 * times, so this bounds how late a job can be if the system clock jumps forward.
+		 */
+		private static final long MAX_CRON_SLEEP = 60000;
 
 		/**
 		 * Stops a job from running again, and returns true if the value was
@@ -674,14 +697,17 @@ public class Scheduling {
 		 * @param jobID The job ID
 		 */
 		public static boolean stopJob(int jobID){
-			synchronized(cronJobs){
-				if(cronJobs.containsKey(jobID)){
-					cronJobs.remove(jobID);
-					return true;
-				} else {
-					return false;
+			if(cronJobs.remove(jobID) == null){
+				return false;
+			}
+			//The next run may be days away, so don't leave it in the queue until then
+			Iterator<CronRun> it = cronQueue.iterator();
+			while(it.hasNext()){
+				if(it.next().jobID == jobID){
+					it.remove();
 				}
 			}
+			return true;
 		}
 
 		@Override
@@ -716,82 +742,81 @@ public class Scheduling {
 				if(cronThread == null){
 					final DaemonManager dm = environment.getEnv(GlobalEnv.class).GetDaemonManager();
 					final MutableObject<Boolean> stopCron = new MutableObject<>(false);
-					StaticLayer.GetConvertor().addShutdownHook(new Runnable() {
+					final Thread thread = new Thread(new Runnable() {
 
 						@Override
 						public void run() {
-							cronThread = null;
-							stopCron.setObject(true);
-							synchronized(cronJobs){
-								cronJobs.clear();
-							}
-							synchronized(cronThreadLock){
-								cronThreadLock.notifyAll();
+							while(!stopCron.getObject()){
+								CronRun run;
+								try {
+									//Sleep until the next job is due
+									run = cronQueue.poll(MAX_CRON_SLEEP, TimeUnit.MILLISECONDS);
+								} catch (InterruptedException ex) {
+									continue;
+								}
+								if(run == null || cronJobs.get(run.jobID) != run.format){
+									//Nothing due yet, or the job was stopped
+									continue;
+								}
+								final CronFormat f = run.format;
+								StaticLayer.GetConvertor().runOnMainThreadLater(dm, new Runnable() {
+
+									@Override
+									public void run() {
+										try {
+											f.job.execute();
+										} catch(ConfigRuntimeException ex){
+											ConfigRuntimeException.HandleUncaughtException(ex, f.job.getEnv());
+										}
+									}
+								});
+								//If we're running late, don't try to catch up on missed runs
+								schedule(run.jobID, f, java.lang.Math.max(run.time, System.currentTimeMillis()));
 							}
+							dm.deactivateThread(Thread.currentThread());
 						}
-					});
-					cronThread = new Thread(new Runnable() {
+					}, Implementation.GetServerType().getBranding() + "-CronDaemon");
+					StaticLayer.GetConvertor().addShutdownHook(new Runnable() {
 
 						@Override
 						public void run() {
-							long lastMinute = 0;
-							while(!stopCron.getObject()){
-								//We want to check to make sure that we only run once per minute, even though the
-								//checks happen every second. This ensures that we have a fast enough sampling
-								//period, while ensuring that we don't repeat tasks within the same minute.
-								if((System.currentTimeMillis() / 1000 / 60) > lastMinute){
-									//Set the lastMinute value to now
-									lastMinute = System.currentTimeMillis() / 1000 / 60;
-									//Activate
-									synchronized(cronJobs){
-										Calendar c = Calendar.getInstance();
-										for(final CronFormat f : cronJobs.values()){
-											//Check to see if it is currently time to run each job
-											if(f.min.contains(c.get(Calendar.MINUTE))
-													&& f.hour.contains(c.get(Calendar.HOUR_OF_DAY))
-													&& f.day.contains(c.get(Calendar.DAY_OF_MONTH))
-													&& f.month.contains(c.get(Calendar.MONTH) + 1)
-													&& f.dayOfWeek.contains(c.get(Calendar.DAY_OF_WEEK) - 1)
-													){
-												//All the fields match, so let's trigger this job
-												StaticLayer.GetConvertor().runOnMainThreadLater(dm, new Runnable() {
-
-													@Override
-													public void run() {
-														try {
-															f.job.execute();
-														} catch(ConfigRuntimeException ex){
-															ConfigRuntimeException.HandleUncaughtException(ex, f.job.getEnv());
-														}
-													}
-												});
-											}
-										}
-									}
-								} //else continue, we'll wait another second.
-								synchronized(cronThreadLock){
-									try {
-										cronThreadLock.wait(1000);
-									} catch (InterruptedException ex) {
-										//Continue
-									}
-								}
+							synchronized(cronThreadLock){
+								cronThread = null;
 							}
-							dm.deactivateThread(cronThread);
+							stopCron.setObject(true);
+							cronJobs.clear();
+							cronQueue.clear();
+							thread.interrupt();
 						}
-					}, Implementation.GetServerType().getBranding() + "-CronDaemon");
+					});
+					cronThread = thread;
 					dm.activateThread(cronThread);
 					cronThread.start();
 				}
 			}
 			int jobID = jobIDs.getAndIncrement();
-			synchronized(cronJobs){
-				cronJobs.put(jobID, format);
-				format.job.getEnv().getEnv(GlobalEnv.class).SetCustom("cron-task-id", jobID);
-			}
+			format.job.getEnv().getEnv(GlobalEnv.class).SetCustom("cron-task-id", jobID);
+			cronJobs.put(jobID, format);
+			schedule(jobID, format, System.currentTimeMillis());
 			return new CInt(jobID, t);
 		}
 
+		/**
+		 * Queues up the next run of the job after the given time, if there is one.
+		 */
+		private static void schedule(int jobID, CronFormat format, long after){
+			long next = format.getNextRunTime(after);
+			if(next != -1){
+				CronRun run = new CronRun(jobID, format, next);
+				cronQueue.add(run);
+				if(cronJobs.get(jobID) != format){
+					//The job was stopped while this run was being scheduled, after stopJob
+					//had already removed its runs from the queue
+					cronQueue.remove(run);
+				}
+			}
+		}
+
 		private static final Map<String, Integer> MONTHS = new HashMap<String, Integer>();
 		private static final Map<String, Integer> DAYS = new HashMap<String, Integer>();
 		private static final Map<String, Integer> HOURS = new HashMap<String, Integer>();
@@ -845,7 +870,7 @@ public class Scheduling {
 			HOURS.put("noon", 12);
 		}
 
-		private CronFormat validateFormat(String format, Target t){
+		CronFormat validateFormat(String format, Target t){
 			//Now we need to look at the format of the cron task, and convert it to a standardized format.
 			//Our goal here is to remove all ranges, predefined names, including @hourly and January.
 			format = format.trim();
@@ -989,7 +1014,7 @@ public class Scheduling {
 			return f;
 		}
 
-		private static class CronFormat {
+		static class CronFormat {
 			public Set<Integer> min = new HashSet<Integer>();
 			public Set<Integer> hour = new HashSet<Integer>();
 			public Set<Integer> day = new HashSet<Integer>();
@@ -998,6 +1023,45 @@ public class Scheduling {
 
 			public CClosure job;
 
+			/**
+			 * Returns the time (in ms since the epoch) of the first minute after the given
+			 * time that matches this format, or -1 if no minute ever will, for instance,
+			 * February 30th.
+			 * @param after
+			 * @return
+			 */
+			public long getNextRunTime(long after){
+				Calendar c = Calendar.getInstance();
+				c.setTimeInMillis(after);
+				c.set(Calendar.SECOND, 0);
+				c.set(Calendar.MILLISECOND, 0);
+				c.add(Calendar.MINUTE, 1);
+				//A leap day on a given day of the week can take up to 28 years to come around
+				int lastYear = c.get(Calendar.YEAR) + 29;
+				while(c.get(Calendar.YEAR) <= lastYear){
+					//Skip ahead by the largest unit that doesn't match
+					if(!month.contains(c.get(Calendar.MONTH) + 1)){
+						c.set(Calendar.DAY_OF_MONTH, 1);
+						c.set(Calendar.HOUR_OF_DAY, 0);
+						c.set(Calendar.MINUTE, 0);
+						c.add(Calendar.MONTH, 1);
+					} else if(!day.contains(c.get(Calendar.DAY_OF_MONTH))
+							|| !dayOfWeek.contains(c.get(Calendar.DAY_OF_WEEK) - 1)){
+						c.set(Calendar.HOUR_OF_DAY, 0);
+						c.set(Calendar.MINUTE, 0);
+						c.add(Calendar.DAY_OF_MONTH, 1);
+					} else if(!hour.contains(c.get(Calendar.HOUR_OF_DAY))){
+						c.set(Calendar.MINUTE, 0);
+						c.add(Calendar.HOUR_OF_DAY, 1);
+					} else if(!min.contains(c.get(Calendar.MINUTE))){
+						c.add(Calendar.MINUTE, 1);
+					} else {
+						return c.getTimeInMillis();
+					}
+				}
+				return -1;
+			}
+
 			@Override
 			public String toString() {
 				return min + "\n" + hour + "\n" + day + "\n" + month + "\n" + dayOfWeek;
@@ -1005,6 +1069,34 @@ public class Scheduling {
 
 		}
 
+		/**
+		 * A single upcoming run of a cron job.
+		 */
+		private static class CronRun implements Delayed {
+			private final int jobID;
+			private final CronFormat format;
+			private final long time;
+
+			public CronRun(int jobID, CronFormat format, long time) {
+				this.jobID = jobID;
+				this.format = format;
+				this.time = time;
+			}
+
+			@Override
+			public long getDelay(TimeUnit unit) {
+				return unit.convert(time - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+			}
+
+			@Override
+			public int compareTo(Delayed o) {
+				if(o instanceof CronRun){
+					return Long.compare(time, ((CronRun) o).time);
+				}
+				return Long.compare(getDelay(TimeUnit.MILLISECONDS), o.getDelay(TimeUnit.MILLISECONDS));
+			}
+		}
+
 		@Override
 		public String getName() {
 			return "set_cron";
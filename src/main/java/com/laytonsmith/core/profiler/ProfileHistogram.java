@@ -0,0 +1,101 @@
+package com.laytonsmith.core.profiler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps running statistics about the run times of a profile point, for the
+ * aggregating profiler mode. Times are sorted into buckets on a log scale, with
+ * four buckets per power of two, so the percentiles are only approximate (to within
+ * about 12%), but recording a time is just a few atomic increments, with no locking
+ * and no allocation.
+ */
+final class ProfileHistogram {
+
+	private static final int BUCKETS = 256;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a run time.
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		buckets.incrementAndGet(bucket(nanos));
+		count.incrementAndGet();
+		total.addAndGet(nanos);
+		long m;
+		while (nanos > (m = max.get())) {
+			if (max.compareAndSet(m, nanos)) {
+				break;
+			}
+		}
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getTotal() {
+		return total.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the approximate run time, in nanoseconds, that the given fraction of
+	 * the recorded times were at or below.
+	 * @param fraction Between 0 and 1, for instance, 0.99 for the 99th percentile
+	 * @return
+	 */
+	public long getPercentile(double fraction) {
+		long c = getCount();
+		if (c == 0) {
+			return 0;
+		}
+		long target = (long) Math.ceil(c * fraction);
+		long soFar = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			soFar += buckets.get(i);
+			if (soFar >= target && soFar > 0) {
+				return Math.min(bucketMiddle(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Times under 4ns get their own bucket. Otherwise, the bucket is based on the
+	 * highest bit set, and the two bits below it.
+	 */
+	static int bucket(long nanos) {
+		if (nanos < 4) {
+			return (int) nanos;
+		}
+		int msb = 63 - Long.numberOfLeadingZeros(nanos);
+		int sub = (int) (nanos >>> (msb - 2)) & 3;
+		return (msb << 2) | sub;
+	}
+
+	/**
+	 * Returns the middle of the range of times that fall in the given bucket.
+	 */
+	static long bucketMiddle(int bucket) {
+		if (bucket < 4) {
+			return bucket;
+		}
+		int msb = bucket >>> 2;
+		int sub = bucket & 3;
+		long low = (4L | sub) << (msb - 2);
+		long width = 1L << (msb - 2);
+		return low + width / 2;
+	}
+}
@@ -12,6 +12,10 @@ public class ProfilePoint implements Comparable<ProfilePoint> {
 	boolean GCRun;
 	private Profiler parent;
 	private LogLevel granularity;
+	/**
+	 * In aggregate mode, the time this point was started. Package private.
+	 */
+	long startTime;
 
 	public ProfilePoint(String name, Profiler parent) {
 		this.name = name;
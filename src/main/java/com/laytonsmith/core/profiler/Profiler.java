@@ -12,10 +12,16 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * TODO: The following points need profile hooks: 
@@ -56,6 +62,12 @@ public final class Profiler {
 					new Preference("profile-log-threshold", "0.005", Preferences.Type.DOUBLE, "If a profile point took less than this amount of time (in ms) to run, it won't be logged. This is good for reducing data blindness"
 					+ " caused by too much data being displayed. Normally you only care about things that took longer than a certain amount, not things that took less than a certain amount. Setting this to 0"
 					+ " will trigger everything."),
+					new Preference("aggregate", "false", Preferences.Type.BOOLEAN, "If true, instead of logging a line for each profile point, the profiler keeps running"
+					+ " statistics for each kind of profile point (the number of times it ran, the total time, and the approximate median, 99th percentile and maximum time),"
+					+ " and logs a summary of them every summary-interval seconds. This costs much less per profile point, and is suitable for leaving on in production."
+					+ " profile-log-threshold is ignored in this mode."),
+					new Preference("summary-interval", "60", Preferences.Type.INT, "If aggregate is true, this is how often (in seconds) the summary is logged."
+					+ " Statistics are reset after each summary."),
 		}));
 		Preferences prefs = new Preferences("CommandHelper", Static.getLogger(), defaults, "These settings control the integrated profiler");
 		prefs.init(initFile);
@@ -73,6 +85,15 @@ public final class Profiler {
 	private Preferences prefs;
 	private File initFile;
 	private double logThreshold;
+	private boolean aggregate;
+	private long summaryInterval;
+	/**
+	 * The statistics for each profile point name, in aggregate mode. This is swapped out
+	 * for a new map each time a summary is logged.
+	 */
+	private final AtomicReference<ConcurrentMap<String, ProfileHistogram>> aggregates
+			= new AtomicReference<ConcurrentMap<String, ProfileHistogram>>(new ConcurrentHashMap<String, ProfileHistogram>());
+	private final AtomicLong nextSummary = new AtomicLong();
 	//To prevent file fights across threads, we only want one outputQueue.
 	private static ExecutionQueue outputQueue;
 	private final ProfilePoint NULL_OP = new ProfilePoint("NULL_OP", this);
@@ -100,6 +121,9 @@ public final class Profiler {
 		writeToFile = (Boolean) prefs.getPreference("write-to-file");
 		writeToScreen = (Boolean) prefs.getPreference("write-to-screen");
 		logThreshold = (Double) prefs.getPreference("profile-log-threshold");
+		aggregate = (Boolean) prefs.getPreference("aggregate");
+		summaryInterval = Math.max(1, (Integer) prefs.getPreference("summary-interval")) * 1000000000L;
+		nextSummary.set(System.nanoTime() + summaryInterval);
 		new GarbageCollectionDetector(this);
 		//As a form of calibration, we want to "warm up" a point.
 		//For whatever reason, this levels out the profile points pretty well.
@@ -123,10 +147,48 @@ public final class Profiler {
 			return NULL_OP;
 		}
 		ProfilePoint p = new ProfilePoint(name, this);
+		if (aggregate) {
+			//No bookkeeping is needed, so skip the operations map entirely
+			p.setGranularity(granularity);
+			p.startTime = System.nanoTime();
+			return p;
+		}
 		start0(p, granularity);
 		return p;
 	}
 
+	/**
+	 * Works like {@link #start(java.lang.String, com.laytonsmith.core.LogLevel)}, but the
+	 * name is given in parts, which are only put together if this point will actually
+	 * be profiled. Callers that would otherwise build a name for each call should use
+	 * this, so that they don't pay for that when the profiler is off.
+	 *
+	 * @param granularity
+	 * @param nameParts The parts of the name, which are converted to strings and
+	 * concatenated.
+	 * @return
+	 */
+	public ProfilePoint start(LogLevel granularity, Object... nameParts) {
+		if (!isLoggable(granularity)) {
+			return NULL_OP;
+		}
+		StringBuilder b = new StringBuilder();
+		for (Object part : nameParts) {
+			b.append(part);
+		}
+		return start(b.toString(), granularity);
+	}
+
+	/**
+	 * Returns true if the profiler is in aggregate mode, in which case, profile points
+	 * with the same name are summarized together, rather than logged individually. In this
+	 * mode, names should not contain details that differ from call to call.
+	 * @return
+	 */
+	public boolean isAggregating() {
+		return profilerOn && aggregate;
+	}
+
 	/**
 	 * "Starts" an operation. Note that for each start, you must use EXACTLY one
 	 * stop, with exactly the same object for operationName. Multiple profile
@@ -174,6 +236,13 @@ public final class Profiler {
 		if (operationName == NULL_OP) {
 			return;
 		}
+		if (aggregate) {
+			if (operationName.startTime != 0) {
+				record(operationName.toString(), stop - operationName.startTime);
+				operationName.startTime = 0;
+			}
+			return;
+		}
 		if (!operations.containsKey(operationName)) {
 			return;
 		}
@@ -200,6 +269,56 @@ public final class Profiler {
 		queuedProfilePoints--;
 	}
 
+	/**
+	 * Adds the time to the statistics for this name, and logs the summary if it's due.
+	 */
+	private void record(String name, long nanos) {
+		ConcurrentMap<String, ProfileHistogram> map = aggregates.get();
+		ProfileHistogram histogram = map.get(name);
+		if (histogram == null) {
+			histogram = new ProfileHistogram();
+			ProfileHistogram existing = map.putIfAbsent(name, histogram);
+			if (existing != null) {
+				histogram = existing;
+			}
+		}
+		histogram.record(nanos);
+		long next = nextSummary.get();
+		long now = System.nanoTime();
+		//Only the thread that wins this gets to log the summary
+		if (now - next >= 0 && nextSummary.compareAndSet(next, now + summaryInterval)) {
+			logSummary(aggregates.getAndSet(new ConcurrentHashMap<String, ProfileHistogram>()));
+		}
+	}
+
+	private void logSummary(Map<String, ProfileHistogram> map) {
+		List<Map.Entry<String, ProfileHistogram>> entries = new ArrayList<>(map.entrySet());
+		//Show the points that took the most time overall first
+		Collections.sort(entries, new Comparator<Map.Entry<String, ProfileHistogram>>() {
+			@Override
+			public int compare(Map.Entry<String, ProfileHistogram> o1, Map.Entry<String, ProfileHistogram> o2) {
+				return Long.compare(o2.getValue().getTotal(), o1.getValue().getTotal());
+			}
+		});
+		StringBuilder b = new StringBuilder();
+		b.append("Profiler summary for the last ").append(summaryInterval / 1000000000L).append(" seconds:");
+		for (Map.Entry<String, ProfileHistogram> entry : entries) {
+			ProfileHistogram h = entry.getValue();
+			b.append(Static.LF()).append("    ").append(entry.getKey())
+					.append(": count=").append(h.getCount())
+					.append(", total=").append(formatNanos(h.getTotal()))
+					.append(", mean=").append(formatNanos(h.getTotal() / Math.max(1, h.getCount())))
+					.append(", p50~").append(formatNanos(h.getPercentile(0.5)))
+					.append(", p99~").append(formatNanos(h.getPercentile(0.99)))
+					.append(", max=").append(formatNanos(h.getMax()));
+		}
+		doLog(b.toString());
+	}
+
+	private static String formatNanos(long nanos) {
+		return ((nanos / 1000) / 1000.0) + "ms";
+	}
+
 	public boolean isLoggable(LogLevel granularity) {
 		if (!profilerOn || granularity == null) {
 			return false;
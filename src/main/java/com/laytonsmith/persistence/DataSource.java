@@ -215,7 +215,11 @@ public interface DataSource extends SimpleDocumentation {
 		SSH("Retrieves the file via SSH. This cannot be used in combination with the HTTP or HTTPS flags. The file path must match the syntax used"
 		+ " by SCP connections, for instance: ssh:yml://user@host:/path/to/file/over/ssh.yml. This will only work with public-key authentication"
 		+ " however, since there is no practical way to input your password otherwise. Since this is a remote IO connection, async is implied if this"
-		+ " modifier is set.", CHVersion.V3_3_1);
+		+ " modifier is set.", CHVersion.V3_3_1),
+		INCREMENTAL("For local file based data sources, instead of re-writing the whole file every time a value is stored, the change is appended to a"
+		+ " log file, which is the filename with .wal appended. Periodically, and when the data source is disconnected, the log is merged back into"
+		+ " the file. This makes writes to large files much more efficient, at the cost of the file itself being temporarily out of date, so this"
+		+ " should not be used if other applications need to read the file while it is in use.", CHVersion.V3_3_1);
 		private CHVersion since;
 		private String documentation;
 
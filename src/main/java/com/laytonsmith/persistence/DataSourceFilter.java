@@ -11,10 +11,12 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -25,27 +27,98 @@ import java.util.regex.Pattern;
 public class DataSourceFilter {
 
 	/**
-	 * Maps the regex-converted filter to a URI string. This is not stored
-	 * as a URI, because it might have capture usages in it.
+	 * The filters, compiled into a trie of their dot separated parts, which is
+	 * used to find the connection for a full key.
 	 */
-	private Map<Pattern, String> mappings = new HashMap<Pattern, String>();
+	private final FilterNode routes = new FilterNode(null);
 	/**
-	 * This maps the compiled pattern to the original in-config filter.
-	 * So, hi\..*? would map to hi.**
+	 * Filters that use regex features (capture groups, for instance) can't be
+	 * put in the trie, so they are matched with their regex instead.
 	 */
-	private Map<Pattern, String> original = new HashMap<Pattern, String>();
+	private final List<Filter> regexFilters = new ArrayList<Filter>();
 	/**
-	 * This maps the split key to the URI string, for use in namespace comparisons.
+	 * The filters, compiled into a second trie for namespace comparisons. Namespace
+	 * matching works on the parts as they are split by String.split, and any part
+	 * with a ** in it matches everything from there on, so this can't share the
+	 * routing trie.
 	 */
-	private Map<String[], String> namespaced = new HashMap<String[], String>();
+	private final FilterNode namespaces = new FilterNode(null);
+	private final Set<URI> allConnections = new HashSet<URI>();
 	/**
-	 * Since data lookups are expensive, cache them.
+	 * Since data lookups are expensive, cache them. The persistence network
+	 * is used from multiple threads at once, so the cache must be concurrent.
+	 * Keys can be arbitrarily varied, so the cache is simply dropped when it
+	 * gets too big.
 	 */
-	private Map<String, URI> cache = new TreeMap<String, URI>();
+	private final Map<String, URI> cache = new ConcurrentHashMap<String, URI>();
+	private static final int MAX_CACHE_SIZE = 4096;
+
 	/**
-	 * Namespace lookups are also expensive, so let's also cache the results.
+	 * A filter in the configuration.
 	 */
-	private Map<String, Set<URI>> namespaceCache = new TreeMap<String, Set<URI>>();
+	private static class Filter {
+		final URI uri;
+		/**
+		 * The filter as written in the config, with the wildcards removed, which is compared against the
+		 * key to find the closest filter when more than one matches.
+		 */
+		final String literal;
+		/**
+		 * The compiled regex, only set for filters that can't go in the trie.
+		 */
+		final Pattern pattern;
+
+		Filter(String key, URI uri, Pattern pattern) {
+			this.uri = uri;
+			this.literal = key.replace("*", "").replace("(", "").replace(")", "");
+			this.pattern = pattern;
+		}
+	}
+
+	/**
+	 * A node in a filter trie. Each node represents one part of a filter.
+	 */
+	private static class FilterNode {
+		/**
+		 * The filter part this node represents.
+		 */
+		final String part;
+		/**
+		 * Set for parts that aren't a plain string or * wildcard (namespace trie only).
+		 */
+		Pattern pattern;
+		/**
+		 * Children with no wildcards in their part, looked up directly.
+		 */
+		final Map<String, FilterNode> literals = new HashMap<String, FilterNode>();
+		/**
+		 * Children with wildcards or regex in their part, which have to be checked one at a time.
+		 */
+		final Map<String, FilterNode> wildcards = new LinkedHashMap<String, FilterNode>();
+		/**
+		 * The child for a ** part, which matches one or more key parts (routing trie only).
+		 */
+		FilterNode anyParts;
+		/**
+		 * The filters that end at this node (routing trie only).
+		 */
+		final List<Filter> filters = new ArrayList<Filter>();
+		/**
+		 * The connections of all the filters that end at or below this node (namespace trie only).
+		 */
+		final Set<URI> below = new HashSet<URI>();
+
+		FilterNode(String part) {
+			this.part = part;
+		}
+
+		boolean matches(String keyPart) {
+			if (pattern != null) {
+				return pattern.matcher(keyPart).matches();
+			}
+			return globMatches(part, keyPart);
+		}
+	}
 
 	/**
 	 * Creates a new data source filter. This is represented by a file that
@@ -94,6 +167,7 @@ public class DataSourceFilter {
 		//First, find the aliases, so we can go ahead and distribute those out when
 		//we get to them.
 		Map<String, String> aliases = new HashMap<String, String>();
+		Set<String> definedFilters = new HashSet<String>();
 		boolean hasDefault = false;
 		for (String key : p.keySet()) {
 			key = key.trim();
@@ -124,11 +198,7 @@ public class DataSourceFilter {
 						+ " Found this instead: " + key);
 				}
 				
-				String regexKey = toRegex(key);
-				
-				Pattern pattern = Pattern.compile(regexKey + "$");
-
-				//Ok, have the pattern, now lets see if the value is an alias
+				//Now lets see if the value is an alias
 
 				String value = p.get(key);
 				String originalValue = value;
@@ -144,8 +214,8 @@ public class DataSourceFilter {
 					}
 				}
 
-				//Is this pattern already in the mapping? If so, we need to throw an error.
-				if (mappings.containsKey(pattern)) {
+				//Is this filter already defined? If so, we need to throw an error.
+				if (!definedFilters.add(key)) {
 					throw new DataSourceException("Multiple definitions exist for the key: " + key);
 				}
 
@@ -160,20 +230,100 @@ public class DataSourceFilter {
 						+ (isAlias ? "(Defined for alias " + originalValue + ")" : "") + ".");
 				}
 				//Alright. It's cool. Add it to the list.
-				mappings.put(pattern, value);
-				original.put(pattern, key);
-				namespaced.put(key.split("\\."), value);
+				addFilter(key, uriValue);
 			}
 			//else it's an alias, and we've already dealt with it
 		}
 		if(!hasDefault){
-			Pattern m = Pattern.compile(".*?");
-			mappings.put(m, defaultURI.toString());
-			original.put(m, "**");
-			namespaced.put(new String[]{"**"}, defaultURI.toString());
+			addFilter("**", defaultURI);
 		}
 	}
-	
+
+	private void addFilter(String key, URI uri) {
+		String[] parts = key.split("\\.", -1);
+		boolean simple = true;
+		for (String part : parts) {
+			if (!part.equals("**") && (part.contains("**") || !SIMPLE_PART.matcher(part).matches())) {
+				simple = false;
+				break;
+			}
+		}
+		if (simple) {
+			FilterNode node = routes;
+			for (String part : parts) {
+				if (part.equals("**")) {
+					if (node.anyParts == null) {
+						node.anyParts = new FilterNode(part);
+					}
+					node = node.anyParts;
+				} else {
+					node = child(node, part, part.contains("*"));
+				}
+			}
+			node.filters.add(new Filter(key, uri, null));
+		} else {
+			regexFilters.add(new Filter(key, uri, Pattern.compile(toRegex(key) + "$")));
+		}
+
+		FilterNode node = namespaces;
+		node.below.add(uri);
+		for (String part : key.split("\\.")) {
+			//Only parts with wildcards are treated as a regex here
+			boolean wildcard = part.contains("*");
+			node = child(node, part, wildcard);
+			if (wildcard && !part.contains("**") && !SIMPLE_PART.matcher(part).matches()) {
+				node.pattern = Pattern.compile(toRegex(part));
+			}
+			node.below.add(uri);
+		}
+		allConnections.add(uri);
+	}
+
+	/**
+	 * Filter parts made up of only these characters can be matched without a regex.
+	 */
+	private static final Pattern SIMPLE_PART = Pattern.compile("[a-zA-Z0-9_\\-\\*]*");
+
+	private static FilterNode child(FilterNode node, String part, boolean wildcard) {
+		Map<String, FilterNode> children = wildcard ? node.wildcards : node.literals;
+		FilterNode child = children.get(part);
+		if (child == null) {
+			child = new FilterNode(part);
+			children.put(part, child);
+		}
+		return child;
+	}
+
+	/**
+	 * Returns true if the key part matches the filter part, where each * in the
+	 * filter part matches any number of characters.
+	 */
+	private static boolean globMatches(String filterPart, String keyPart) {
+		int f = 0;
+		int k = 0;
+		int star = -1;
+		int starK = 0;
+		while (k < keyPart.length()) {
+			if (f < filterPart.length() && filterPart.charAt(f) == '*') {
+				star = f++;
+				starK = k;
+			} else if (f < filterPart.length() && filterPart.charAt(f) == keyPart.charAt(k)) {
+				f++;
+				k++;
+			} else if (star != -1) {
+				//Backtrack, and let the last star swallow one more character
+				f = star + 1;
+				k = ++starK;
+			} else {
+				return false;
+			}
+		}
+		while (f < filterPart.length() && filterPart.charAt(f) == '*') {
+			f++;
+		}
+		return f == filterPart.length();
+	}
+
 	/**
 	 * Given a key filter, returns a regex pattern that is suitable for
 	 * matching against actual keys.
@@ -221,16 +371,7 @@ public class DataSourceFilter {
 	 * @return 
 	 */
 	public Set<URI> getAllConnections(){
-		Set<URI> set = new HashSet<>();
-		for(String uri : namespaced.values()){
-			try {
-				set.add(new URI(uri));
-			} catch (URISyntaxException ex){
-				//Won't happen
-				throw new Error(ex);
-			}
-		}
-		return set;
+		return new HashSet<>(allConnections);
 	}
 
 	/**
@@ -251,67 +392,64 @@ public class DataSourceFilter {
 	 * @return
 	 */
 	public Set<URI> getAllConnections(String key) {
-		if(namespaceCache.containsKey(key)){
-			return new HashSet<>(namespaceCache.get(key));
-		}
-		Map<String[], String> matches = new HashMap<String[], String>();
-		String [] split = key.split("\\.");
-		outer: for(String [] comparison : namespaced.keySet()){
-			inner: for(int comparing = 0; comparing < split.length; comparing++){
-				//If the length of the key is greater than this comparison, it's not a match, unless
-				//the key had a ** in it at some point before this index
-				if(arrayContains(comparison, "**", 0, comparing)){
-					//Yes, it matches, regardless.
-					matches.put(comparison, namespaced.get(comparison));
-					break inner;
-				} else if(comparison.length > comparing){
-					//Ok, so we know that it has the correct number of parts.					
-					String requestedPart = split[comparing];
-					String myPart = comparison[comparing];
-					if(myPart.contains("*")){
-						//It's got a wildcard, so we need to convert it to a regex and compare from there
-						String regexPart = toRegex(myPart);
-						if(!requestedPart.matches(regexPart)){							
-							continue outer;
-						}
-					} else {
-						//Else it's a simple a string match
-						if(!requestedPart.equals(myPart)){
-							continue outer;
-						}
-					}
-					//It matched this part, so let's continue with the investigation.
-					//If this was the last part we need to compare, it's good, we can add it to the list now.
-					if(comparing == split.length - 1){
-						matches.put(comparison, namespaced.get(comparison));
-						break inner;
-					}
-				}
-			}
-		}	
-		
 		Set<URI> list = new HashSet<>();
-		for(String [] match : matches.keySet()){
-			String uri = matches.get(match);
-			try {
-				list.add(new URI(uri));
-			} catch (URISyntaxException ex) {
-				//Won't happen
-				throw new Error(ex);
+		String[] split = key.split("\\.");
+		if (split.length > 0) {
+			findNamespace(namespaces, split, 0, list);
+		}
+		return list;
+	}
+
+	/**
+	 * A filter matches the namespace if the namespace parts match the start of the
+	 * filter, or if the filter has a ** in it before the namespace stops matching.
+	 */
+	private static void findNamespace(FilterNode node, String[] key, int index, Set<URI> found) {
+		FilterNode child = node.literals.get(key[index]);
+		if (child != null) {
+			foundNamespacePart(child, key, index, found);
+		}
+		for (FilterNode wildcard : node.wildcards.values()) {
+			if (wildcard.part.contains("**")) {
+				//Everything past this point matches, regardless.
+				found.addAll(wildcard.below);
+			} else if (wildcard.matches(key[index])) {
+				foundNamespacePart(wildcard, key, index, found);
 			}
 		}
-		namespaceCache.put(key, list);
-		return new HashSet<>(list);
 	}
-	
-	private boolean arrayContains(String[] array, String contains, int from, int to){
-		for(int i = from; i < (to + 1<=array.length?to + 1:array.length); i++){
-			String part = array[i];
-			if(part.contains(contains)){
-				return true;
+
+	private static void foundNamespacePart(FilterNode node, String[] key, int index, Set<URI> found) {
+		if (index == key.length - 1) {
+			found.addAll(node.below);
+		} else {
+			findNamespace(node, key, index + 1, found);
+		}
+	}
+
+	/**
+	 * Finds all the filters in the trie that match the rest of the key.
+	 */
+	private static void route(FilterNode node, String[] key, int index, Set<Filter> found) {
+		if (index == key.length) {
+			found.addAll(node.filters);
+			return;
+		}
+		FilterNode child = node.literals.get(key[index]);
+		if (child != null) {
+			route(child, key, index + 1, found);
+		}
+		for (FilterNode wildcard : node.wildcards.values()) {
+			if (wildcard.matches(key[index])) {
+				route(wildcard, key, index + 1, found);
+			}
+		}
+		if (node.anyParts != null) {
+			//** matches one or more parts, though they may be empty
+			for (int i = index + 1; i <= key.length; i++) {
+				route(node.anyParts, key, i, found);
 			}
 		}
-		return false;
 	}
 
 	/**
@@ -323,52 +461,45 @@ public class DataSourceFilter {
 	public URI getConnection(String key) {
 		//Since looking through these patterns, doing the matches, calculating string distance are all
 		//fairly expensive operations, let's improve the runtime complexity by using a cache
-		if (cache.containsKey(key)) {
-			return cache.get(key);
+		URI cached = cache.get(key);
+		if (cached != null) {
+			return cached;
 		}
-		List<Pattern> matches = new ArrayList<Pattern>();
-		for (Pattern p : mappings.keySet()) {
-			if (p.matcher(key).matches()) {
-				matches.add(p);
+		Set<Filter> matches = new LinkedHashSet<Filter>();
+		route(routes, key.split("\\.", -1), 0, matches);
+		for (Filter f : regexFilters) {
+			if (f.pattern.matcher(key).matches()) {
+				matches.add(f);
 			}
 		}
 		//Ok, we have a list of the actual matches, we have to narrow it down to the closest
 		//match.
-		Pattern closest = null;
+		Filter closest = null;
 		if (matches.isEmpty()) {
 			//Trivial case
 			return null;
 		} else if (matches.size() == 1) {
-			//Yay! Also a trivial case!            
-			closest = matches.get(0);
+			//Yay! Also a trivial case!
+			closest = matches.iterator().next();
 		} else {
 			int lowest = Integer.MAX_VALUE;
-			for (Pattern p : matches) {
+			for (Filter f : matches) {
 				//The closest match is defined as a filter that, minus wild cards, matches more characters.
 				//So, for instance, if the key is a.b.c.d, then this matches a.*.c.d better than a.*.*.d
 				//The easiest way to detect this is to simply remove * characters, and do a Levenshtein distance on the strings, and
 				//whichever one is lowest, is the closest.
-				String originalKey = original.get(p);
-				int dist = StringUtils.LevenshteinDistance(key, originalKey.replaceAll("\\*", "").replaceAll("[\\(\\)]", ""));
+				int dist = StringUtils.LevenshteinDistance(key, f.literal);
 				if (dist < lowest) {
-					closest = p;
+					closest = f;
 					lowest = dist;
 				}
 			}
 		}
-
-		try {
-			if (closest == null) {
-				return null;
-			}
-			String uri = mappings.get(closest);
-			URI u = new URI(uri);
-			//Store it in our cache
-			cache.put(key, u);
-			return u;
-		} catch (URISyntaxException ex) {
-			//We already verified that this won't happen, so yeah.
-			return null;
+		//Store it in our cache
+		if (cache.size() >= MAX_CACHE_SIZE) {
+			cache.clear();
 		}
+		cache.put(key, closest.uri);
+		return closest.uri;
 	}
 }
@@ -124,17 +124,15 @@ public class MySQLDataSource extends SQLDataSource {
 	public String get0(String[] key) throws DataSourceException {
 		try {
 			connect();
-			String ret; 
-			try (PreparedStatement statement = getConnection().prepareStatement("SELECT `" + getValueColumn() + "` FROM `" 
+			flushBatch();
+			PreparedStatement statement = prepare("SELECT `" + getValueColumn() + "` FROM `"
 					+ getEscapedTable() + "` WHERE `" + KEY_HASH_COLUMN + "`=UNHEX(MD5(?))"
-					+ " LIMIT 1")) {
-				String joinedKey = StringUtils.Join(key, ".");
-				statement.setString(1, joinedKey);
-				ret = null;
-				try (ResultSet result = statement.executeQuery()) {
-					if(result.next()){
-						ret = result.getString(getValueColumn());
-					}
+					+ " LIMIT 1");
+			statement.setString(1, StringUtils.Join(key, "."));
+			String ret = null;
+			try (ResultSet result = statement.executeQuery()) {
+				if(result.next()){
+					ret = result.getString(getValueColumn());
 				}
 			}
 			updateLastConnected();
@@ -151,16 +149,15 @@ public class MySQLDataSource extends SQLDataSource {
 			if(value == null){
 				clearKey0(dm, key);
 			} else {
-				try (PreparedStatement statement = getConnection().prepareStatement("REPLACE INTO"
+				PreparedStatement statement = prepare("REPLACE INTO"
 						+ " `" + getEscapedTable() + "`"
 						+ " (`" + KEY_HASH_COLUMN + "`, `" + getKeyColumn() + "`, `" + getValueColumn() + "`)"
-						+ " VALUES (UNHEX(MD5(?)), ?, ?)")) {
-					String joinedKey = StringUtils.Join(key, ".");
-					statement.setString(1, joinedKey);
-					statement.setString(2, joinedKey);
-					statement.setString(3, value);
-					statement.executeUpdate();
-				}
+						+ " VALUES (UNHEX(MD5(?)), ?, ?)");
+				String joinedKey = StringUtils.Join(key, ".");
+				statement.setString(1, joinedKey);
+				statement.setString(2, joinedKey);
+				statement.setString(3, value);
+				executeWrite(statement);
 			}
 			updateLastConnected();
 			return true;
@@ -173,13 +170,12 @@ public class MySQLDataSource extends SQLDataSource {
 	protected void clearKey0(DaemonManager dm, String[] key) throws ReadOnlyException, DataSourceException, IOException {
 		if(hasKey(key)){
 			try{
-				connect();				
-				try (PreparedStatement statement = getConnection().prepareStatement("DELETE FROM `" + getEscapedTable() + "`"
-						+ " WHERE `" + KEY_HASH_COLUMN + "`=UNHEX(MD5(?))")) {
-					String joinedKey = StringUtils.Join(key, ".");
-					statement.setString(1, joinedKey);
-					statement.executeUpdate();
-				}
+				connect();
+				flushBatch();
+				PreparedStatement statement = prepare("DELETE FROM `" + getEscapedTable() + "`"
+						+ " WHERE `" + KEY_HASH_COLUMN + "`=UNHEX(MD5(?))");
+				statement.setString(1, StringUtils.Join(key, "."));
+				statement.executeUpdate();
 				updateLastConnected();
 			} catch(Exception e){
 				throw new DataSourceException(e.getMessage(), e);
@@ -221,6 +217,7 @@ public class MySQLDataSource extends SQLDataSource {
 	@Override
 	protected void stopTransaction0(DaemonManager dm, boolean rollback) throws DataSourceException, IOException {
 		try {
+			endBatch(rollback);
 			if (rollback) {
 				try(PreparedStatement statement = getConnection().prepareStatement("ROLLBACK")){
 					statement.execute();
@@ -20,6 +20,10 @@ import java.util.Set;
  * getting values, and getting multiple values at once, based on a namespace
  * match. All other aspects of how the data is stored and retrieved are
  * abstracted, so you needn't worry about any of those details.
+ * <p>
+ * The network itself is not locked; concurrency control is done per data
+ * source, by {@link ThreadsafeDataSource}, so a slow data source only blocks
+ * access to keys that are actually stored there.
  *
  * 
  */
@@ -98,7 +102,7 @@ public class PersistenceNetwork {
 	 * @throws DataSourceException
 	 * @throws IllegalArgumentException If the key is invalid
 	 */
-	public synchronized String get(String[] key/*boolean isMainThread*/) throws DataSourceException, IllegalArgumentException {
+	public String get(String[] key/*boolean isMainThread*/) throws DataSourceException, IllegalArgumentException {
 		//TODO: Use isMainThread here
 		DataSource ds = getDataSource(filter.getConnection(key));
 		return ds.get(key);
@@ -116,7 +120,7 @@ public class PersistenceNetwork {
 	 * @throws IOException
 	 * @throws IllegalArgumentException If the key is invalid
 	 */
-	public synchronized boolean set(DaemonManager dm, String[] key, String value) throws DataSourceException, ReadOnlyException, IOException, IllegalArgumentException {
+	public boolean set(DaemonManager dm, String[] key, String value) throws DataSourceException, ReadOnlyException, IOException, IllegalArgumentException {
 		DataSource ds = getDataSource(filter.getConnection(key));
 		return ds.set(dm, key, value);
 	}
@@ -130,7 +134,7 @@ public class PersistenceNetwork {
 	 * @throws DataSourceException
 	 * @throws IllegalArgumentException If the key is invalid
 	 */
-	public synchronized boolean hasKey(String[] key) throws DataSourceException, IllegalArgumentException {
+	public boolean hasKey(String[] key) throws DataSourceException, IllegalArgumentException {
 		DataSource ds = getDataSource(filter.getConnection(key));
 		return ds.hasKey(key);
 	}
@@ -143,7 +147,7 @@ public class PersistenceNetwork {
 	 * @throws DataSourceException
 	 * @throws IllegalArgumentException If the key is invalid
 	 */
-	public synchronized void clearKey(DaemonManager dm, String[] key) throws DataSourceException, ReadOnlyException, IOException, IllegalArgumentException {
+	public void clearKey(DaemonManager dm, String[] key) throws DataSourceException, ReadOnlyException, IOException, IllegalArgumentException {
 		DataSource ds = getDataSource(filter.getConnection(key));
 		ds.clearKey(dm, key);
 	}
@@ -158,7 +162,7 @@ public class PersistenceNetwork {
 	 * @return
 	 * @throws IllegalArgumentException If the key is invalid
 	 */
-	public synchronized Map<String[], String> getNamespace(String[] namespace /*, boolean isMainThread*/) throws DataSourceException, IllegalArgumentException {
+	public Map<String[], String> getNamespace(String[] namespace /*, boolean isMainThread*/) throws DataSourceException, IllegalArgumentException {
 		//TODO: isMainThread needs to be used here somewhere, I think?
 		//This is a slight optimization, instead of looking through ALL the connections, just
 		//look through the ones that have data matching this namespace in them.
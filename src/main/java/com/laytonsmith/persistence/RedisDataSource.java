@@ -8,7 +8,10 @@ import com.laytonsmith.core.CHVersion;
 import com.laytonsmith.persistence.io.ConnectionMixinFactory;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import redis.clients.jedis.Jedis;
@@ -62,6 +65,11 @@ public class RedisDataSource extends AbstractDataSource {
 	}
 	
 	private void connect(){
+		if(transaction != null){
+			// While a MULTI is open, the connection can only be used through the transaction,
+			// so it can't be tested here, and it must not be replaced underneath it.
+			return;
+		}
 		boolean needToConnect = false;
 		if(connection == null){
 			needToConnect = true;
@@ -104,7 +112,10 @@ public class RedisDataSource extends AbstractDataSource {
 		String status;
 		try{
 			if(inTransaction()){
-				status = transaction.set(ckey, value).get();
+				//The reply isn't available until the transaction is executed, the command is just queued
+				//up, and sent along with the rest of the transaction.
+				transaction.set(ckey, value);
+				status = "OK";
 			} else {
 				status = connection.set(ckey, value);
 			}
@@ -133,15 +144,11 @@ public class RedisDataSource extends AbstractDataSource {
 
 	@Override
 	protected String get0(String[] key) throws DataSourceException {
+		checkNotInTransaction();
 		connect();
 		String ckey = StringUtils.Join(key, ".");
 		try{
-			String ret;
-			if(inTransaction()){
-				ret = transaction.get(ckey).get();
-			} else {
-				ret =  connection.get(ckey);
-			}
+			String ret = connection.get(ckey);
 			lastConnected = System.currentTimeMillis();
 			return ret;
 		} catch(JedisConnectionException e){
@@ -151,15 +158,12 @@ public class RedisDataSource extends AbstractDataSource {
 
 	@Override
 	public Set<String[]> keySet(String[] keyBase) throws DataSourceException {
+		checkNotInTransaction();
 		connect();
 		Set<String> ret;
 		String kb = StringUtils.Join(keyBase, ".") + "*";
 		try{
-			if(inTransaction()){
-				ret = transaction.keys(kb).get();
-			} else {
-				ret = connection.keys(kb);
-			}
+			ret = connection.keys(kb);
 			lastConnected = System.currentTimeMillis();
 		} catch(JedisConnectionException e){
 			throw new DataSourceException(e);
@@ -171,6 +175,48 @@ public class RedisDataSource extends AbstractDataSource {
 		return parsed;
 	}
 
+	/**
+	 * Rather than getting each key in the namespace separately, the values are all
+	 * fetched with a single MGET.
+	 */
+	@Override
+	protected Map<String[], String> getValues0(String[] leadKey) throws DataSourceException {
+		checkNotInTransaction();
+		List<String[]> keys = new ArrayList<>(getNamespace(leadKey));
+		Map<String[], String> map = new HashMap<>();
+		if(keys.isEmpty()){
+			return map;
+		}
+		String[] ckeys = new String[keys.size()];
+		for(int i = 0; i < ckeys.length; i++){
+			ckeys[i] = StringUtils.Join(keys.get(i), ".");
+		}
+		connect();
+		List<String> values;
+		try{
+			values = connection.mget(ckeys);
+			lastConnected = System.currentTimeMillis();
+		} catch(JedisConnectionException e){
+			throw new DataSourceException(e);
+		}
+		for(int i = 0; i < ckeys.length; i++){
+			map.put(keys.get(i), values.get(i));
+		}
+		return map;
+	}
+
+	/**
+	 * Commands sent while a MULTI is open are only queued, and their replies aren't
+	 * available until the transaction is executed. The connection itself can't be
+	 * used until then either, so there is no way to read a value during a transaction.
+	 * @throws DataSourceException If a transaction is in progress
+	 */
+	private void checkNotInTransaction() throws DataSourceException {
+		if(inTransaction()){
+			throw new DataSourceException("Values cannot be read from a redis data source while a transaction is in progress");
+		}
+	}
+
 	@Override
 	public void populate() throws DataSourceException {
 		//Unneeded
@@ -189,7 +235,8 @@ public class RedisDataSource extends AbstractDataSource {
 			DataSourceModifier.HTTP,
 			DataSourceModifier.HTTPS,
 			DataSourceModifier.PRETTYPRINT,
-			DataSourceModifier.SSH
+			DataSourceModifier.SSH,
+			DataSourceModifier.INCREMENTAL
 		};
 	}
 
@@ -211,19 +258,27 @@ public class RedisDataSource extends AbstractDataSource {
 	@Override
 	protected void startTransaction0(DaemonManager dm) {
 		dm.activateThread(null);
-		connection.multi();
+		connect();
+		transaction = connection.multi();
 		dm.deactivateThread(null);
 	}
 
 	@Override
 	protected void stopTransaction0(DaemonManager dm, boolean rollback) throws DataSourceException, IOException {
 		dm.activateThread(null);
-		if(rollback){
-			transaction.discard();
-		} else {
-			transaction.exec();
+		try{
+			if(rollback){
+				transaction.discard();
+			} else {
+				transaction.exec();
+			}
+			lastConnected = System.currentTimeMillis();
+		} catch(JedisConnectionException e){
+			throw new DataSourceException(e);
+		} finally {
+			transaction = null;
+			dm.deactivateThread(null);
 		}
-		dm.deactivateThread(null);
 	}
 	
 }
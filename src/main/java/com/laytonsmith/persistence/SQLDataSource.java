@@ -23,6 +23,17 @@ public abstract class SQLDataSource extends AbstractDataSource {
 	private static final String VALUE_COLUMN = "value";
 	protected Connection connection;
 	private long lastConnected = 0;
+	/**
+	 * Prepared statements are kept for as long as the connection they were prepared on
+	 * is in use, so the same queries aren't re-parsed on every call.
+	 */
+	private final Map<String, PreparedStatement> statements = new HashMap<>();
+	private Connection statementConnection;
+	/**
+	 * Writes made during a transaction are batched, and sent all at once, either when
+	 * the transaction is committed, or before the next read, so the read sees them.
+	 */
+	private PreparedStatement pendingBatch;
 
 	protected SQLDataSource() {
 		//
@@ -115,6 +126,8 @@ public abstract class SQLDataSource extends AbstractDataSource {
 			}
 		}
 		if (needToConnect) {
+			//Anything batched on the old connection was lost with it
+			pendingBatch = null;
 			connection = DriverManager.getConnection(getConnectionString());
 		}
 	}
@@ -132,6 +145,8 @@ public abstract class SQLDataSource extends AbstractDataSource {
 	public void disconnect() throws DataSourceException {
 		try {
 			if (connection != null) {
+				pendingBatch = null;
+				closeStatements();
 				connection.close();
 				connection = null;
 			}
@@ -140,22 +155,131 @@ public abstract class SQLDataSource extends AbstractDataSource {
 		}
 	}
 	
+	/**
+	 * Returns a prepared statement for the given query on the current connection. The statement
+	 * is cached, and must not be closed by the caller. {@link #connect()} must be called first.
+	 *
+	 * @param sql
+	 * @return
+	 * @throws SQLException
+	 */
+	protected PreparedStatement prepare(String sql) throws SQLException {
+		if (statementConnection != connection) {
+			closeStatements();
+			statementConnection = connection;
+		}
+		PreparedStatement statement = statements.get(sql);
+		if (statement == null) {
+			statement = connection.prepareStatement(sql);
+			statements.put(sql, statement);
+		}
+		return statement;
+	}
+
+	private void closeStatements() {
+		for (PreparedStatement statement : statements.values()) {
+			try {
+				statement.close();
+			} catch (SQLException ex) {
+				//The connection is going away anyways
+			}
+		}
+		statements.clear();
+		statementConnection = null;
+	}
+
+	/**
+	 * Adds the statement, with its parameters already set, to the pending batch of writes,
+	 * which will be sent by the next call to {@link #flushBatch()}. Only one statement may be
+	 * batched at a time, so if a different statement is already pending, it is sent first, to
+	 * keep the writes in order.
+	 *
+	 * @param statement A statement returned by {@link #prepare(java.lang.String)}
+	 * @throws SQLException
+	 */
+	protected void addToBatch(PreparedStatement statement) throws SQLException {
+		if (pendingBatch != null && pendingBatch != statement) {
+			flushBatch();
+		}
+		statement.addBatch();
+		pendingBatch = statement;
+	}
+
+	/**
+	 * Sends the write, with its parameters already set. During a transaction, the write is
+	 * added to the pending batch instead, which is sent when the transaction is committed, or
+	 * before the next read.
+	 *
+	 * @param statement A statement returned by {@link #prepare(java.lang.String)}
+	 * @throws SQLException
+	 */
+	protected void executeWrite(PreparedStatement statement) throws SQLException {
+		if (inTransaction()) {
+			addToBatch(statement);
+		} else {
+			statement.executeUpdate();
+		}
+	}
+
+	/**
+	 * Finishes the pending batch when a transaction ends, by sending it if the transaction is
+	 * being committed, or throwing it away if it is being rolled back. Subclasses should call
+	 * this from {@link #stopTransaction0} before they commit or roll back the transaction itself.
+	 *
+	 * @param rollback
+	 * @throws SQLException
+	 */
+	protected void endBatch(boolean rollback) throws SQLException {
+		if (rollback) {
+			discardBatch();
+		} else {
+			flushBatch();
+		}
+	}
+
+	/**
+	 * Sends any pending batched writes. This must be called before any read, and before the
+	 * transaction is committed.
+	 *
+	 * @throws SQLException
+	 */
+	protected void flushBatch() throws SQLException {
+		if (pendingBatch != null) {
+			PreparedStatement batch = pendingBatch;
+			pendingBatch = null;
+			batch.executeBatch();
+		}
+	}
+
+	/**
+	 * Throws away any pending batched writes, for instance, when the transaction is rolled back.
+	 */
+	protected void discardBatch() {
+		if (pendingBatch != null) {
+			try {
+				pendingBatch.clearBatch();
+			} catch (SQLException ex) {
+				//Nothing else we can do
+			}
+			pendingBatch = null;
+		}
+	}
+
 	@Override
 	public Set<String[]> keySet(String[] keyBase) throws DataSourceException {
 		String searchPrefix = StringUtils.Join(keyBase, ".");
 		try {
 			connect();
-			Set<String[]> set;
-			try(PreparedStatement statement = connection.prepareStatement("SELECT `" + KEY_COLUMN + "` FROM `" + getEscapedTable() + "` WHERE `" + KEY_COLUMN + "` LIKE ?")){
-				statement.setString(1, searchPrefix + "%");
-				set = new HashSet<>();
-				try(ResultSet result = statement.executeQuery()){
-					while(result.next()){
-						set.add(result.getString(KEY_COLUMN).split("\\."));
-					}
+			flushBatch();
+			PreparedStatement statement = prepare("SELECT `" + KEY_COLUMN + "` FROM `" + getEscapedTable() + "` WHERE `" + KEY_COLUMN + "` LIKE ?");
+			statement.setString(1, searchPrefix + "%");
+			Set<String[]> set = new HashSet<>();
+			try(ResultSet result = statement.executeQuery()){
+				while(result.next()){
+					set.add(result.getString(KEY_COLUMN).split("\\."));
 				}
-				lastConnected = System.currentTimeMillis();
 			}
+			lastConnected = System.currentTimeMillis();
 			return set;
 		} catch(SQLException | IOException ex){
 			throw new DataSourceException(ex.getMessage(), ex);
@@ -166,18 +290,17 @@ public abstract class SQLDataSource extends AbstractDataSource {
 	protected Map<String[], String> getValues0(String[] leadKey) throws DataSourceException {
 		try {
 			connect();
-			Map<String[], String> map;
-			try (PreparedStatement statement = connection.prepareStatement("SELECT `" + KEY_COLUMN + "`, `" + VALUE_COLUMN + "` FROM `" + getEscapedTable() + "`"
-					+ " WHERE `" + KEY_COLUMN + "` LIKE ?")){
-				statement.setString(1, StringUtils.Join(leadKey, ".") + "%");
-				map = new HashMap<>();
-				try (ResultSet results = statement.executeQuery()){
-					while(results.next()){
-						map.put(results.getString(KEY_COLUMN).split("\\."), results.getString(VALUE_COLUMN));
-					}
+			flushBatch();
+			PreparedStatement statement = prepare("SELECT `" + KEY_COLUMN + "`, `" + VALUE_COLUMN + "` FROM `" + getEscapedTable() + "`"
+					+ " WHERE `" + KEY_COLUMN + "` LIKE ?");
+			statement.setString(1, StringUtils.Join(leadKey, ".") + "%");
+			Map<String[], String> map = new HashMap<>();
+			try (ResultSet results = statement.executeQuery()){
+				while(results.next()){
+					map.put(results.getString(KEY_COLUMN).split("\\."), results.getString(VALUE_COLUMN));
 				}
-				lastConnected = System.currentTimeMillis();
 			}
+			lastConnected = System.currentTimeMillis();
 			return map;
 		} catch(SQLException | IOException ex){
 			throw new DataSourceException(ex.getMessage(), ex);
@@ -188,11 +311,11 @@ public abstract class SQLDataSource extends AbstractDataSource {
 	protected void clearKey0(DaemonManager dm, String[] key) throws ReadOnlyException, DataSourceException, IOException {
 		if(hasKey(key)){
 			try{
-				connect();				
-				try (PreparedStatement statement = connection.prepareStatement("DELETE FROM `" + getEscapedTable() + "` WHERE `" + KEY_COLUMN + "`=?")) {
-					statement.setString(1, StringUtils.Join(key, "."));
-					statement.executeUpdate();
-				}
+				connect();
+				flushBatch();
+				PreparedStatement statement = prepare("DELETE FROM `" + getEscapedTable() + "` WHERE `" + KEY_COLUMN + "`=?");
+				statement.setString(1, StringUtils.Join(key, "."));
+				statement.executeUpdate();
 				lastConnected = System.currentTimeMillis();
 			} catch(Exception e){
 				throw new DataSourceException(e.getMessage(), e);
@@ -213,7 +336,8 @@ public abstract class SQLDataSource extends AbstractDataSource {
 	@Override
 	public DataSourceModifier[] invalidModifiers() {
 		return new DataSourceModifier[]{DataSourceModifier.HTTP, DataSourceModifier.HTTPS, DataSourceModifier.SSH,
-			DataSourceModifier.PRETTYPRINT
+			DataSourceModifier.PRETTYPRINT,
+			DataSourceModifier.INCREMENTAL
 		};
 	}
 	
@@ -2,7 +2,9 @@ package com.laytonsmith.persistence;
 
 import com.laytonsmith.PureUtilities.Common.StringUtils;
 import com.laytonsmith.PureUtilities.DaemonManager;
+import com.laytonsmith.persistence.io.ConnectionMixin;
 import com.laytonsmith.persistence.io.ConnectionMixinFactory;
+import com.laytonsmith.persistence.io.ReadWriteFileConnection;
 import java.io.IOException;
 import java.net.URI;
 import java.util.HashSet;
@@ -34,6 +36,17 @@ public abstract class StringSerializableDataSource extends AbstractDataSource {
 	 * when the transaction finishes.
 	 */
 	private boolean hasChanges = false;
+	/**
+	 * In incremental mode, once this many entries have been appended to the
+	 * write-ahead log, the full model is written out instead, which discards
+	 * the log.
+	 */
+	private static final int COMPACT_THRESHOLD = 1000;
+	/**
+	 * The number of entries in the write-ahead log since the model was last
+	 * written out in full.
+	 */
+	private int logEntries = 0;
 	
 	protected StringSerializableDataSource(){
 		
@@ -51,12 +64,33 @@ public abstract class StringSerializableDataSource extends AbstractDataSource {
 	 */
 	protected void writeData(DaemonManager dm, String data) throws IOException, ReadOnlyException, DataSourceException {
 		getConnectionMixin().writeData(dm, data);
+		logEntries = 0;
+	}
+
+	/**
+	 * Writes out a single change to the model. Normally, this writes out the
+	 * whole model, but if the data source is incremental, the change is simply
+	 * appended to the write-ahead log, unless the log has grown large enough
+	 * that it should be compacted.
+	 * @param dm
+	 * @param key
+	 * @param value The new value, or null if the key was cleared.
+	 */
+	private void writeChange(DaemonManager dm, String[] key, String value) throws IOException, ReadOnlyException, DataSourceException {
+		ConnectionMixin mixin = getConnectionMixin();
+		if (modifiers.contains(DataSourceModifier.INCREMENTAL) && mixin instanceof ReadWriteFileConnection
+				&& logEntries < COMPACT_THRESHOLD) {
+			((ReadWriteFileConnection) mixin).appendLog(dm, GetLogEntry(key, value));
+			logEntries++;
+		} else {
+			writeData(dm, serializeModel());
+		}
 	}
 
 	@Override
 	protected void clearKey0(DaemonManager dm, String[] key) throws DataSourceException, ReadOnlyException, IOException {
 		model.clearKey(key);
-		writeData(dm, serializeModel());
+		writeChange(dm, key, null);
 	}
 
 	@Override
@@ -101,12 +135,114 @@ public abstract class StringSerializableDataSource extends AbstractDataSource {
 			}
 		}
 		String data;
+		String log = "";
 		try {
-			data = getConnectionMixin().getData();
+			ConnectionMixin mixin = getConnectionMixin();
+			data = mixin.getData();
+			//Even if the data source is no longer incremental, a log may have
+			//been left over, and it must be applied before it is discarded.
+			if (mixin instanceof ReadWriteFileConnection) {
+				log = ((ReadWriteFileConnection) mixin).getLogData();
+			}
 		} catch (DataSourceException | IOException e) {
 			throw new DataSourceException("Could not populate the data source (" + uri + ") with data: " + e.getMessage(), e);
 		}
 		populateModel(data);
+		logEntries = replayLog(log);
+	}
+
+	/**
+	 * Returns a line for the write-ahead log that records the change.
+	 * Sets are written as "S\tkey\tvalue", and clears are written as
+	 * "C\tkey". Tabs, newlines and backslashes in the key and value are
+	 * escaped.
+	 * @param key
+	 * @param value The new value, or null if the key was cleared.
+	 * @return
+	 */
+	private static String GetLogEntry(String[] key, String value) {
+		StringBuilder b = new StringBuilder();
+		b.append(value == null ? 'C' : 'S').append('\t').append(Escape(StringUtils.Join(key, ".")));
+		if (value != null) {
+			b.append('\t').append(Escape(value));
+		}
+		return b.append('\n').toString();
+	}
+
+	/**
+	 * Applies the changes recorded in the write-ahead log to the model.
+	 * Entries that can't be parsed, such as a partially written final line,
+	 * are skipped.
+	 * @param log
+	 * @return The number of entries that were applied.
+	 */
+	private int replayLog(String log) {
+		int count = 0;
+		int start = 0;
+		int end;
+		while ((end = log.indexOf('\n', start)) != -1) {
+			String[] parts = log.substring(start, end).split("\t", -1);
+			start = end + 1;
+			if (parts.length == 3 && "S".equals(parts[0])) {
+				model.set(Unescape(parts[1]).split("\\."), Unescape(parts[2]));
+			} else if (parts.length == 2 && "C".equals(parts[0])) {
+				model.clearKey(Unescape(parts[1]).split("\\."));
+			} else {
+				continue;
+			}
+			count++;
+		}
+		return count;
+	}
+
+	private static String Escape(String s) {
+		StringBuilder b = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '\\':
+					b.append("\\\\");
+					break;
+				case '\t':
+					b.append("\\t");
+					break;
+				case '\n':
+					b.append("\\n");
+					break;
+				case '\r':
+					b.append("\\r");
+					break;
+				default:
+					b.append(c);
+			}
+		}
+		return b.toString();
+	}
+
+	private static String Unescape(String s) {
+		StringBuilder b = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '\\' && i + 1 < s.length()) {
+				char n = s.charAt(++i);
+				switch (n) {
+					case 't':
+						b.append('\t');
+						break;
+					case 'n':
+						b.append('\n');
+						break;
+					case 'r':
+						b.append('\r');
+						break;
+					default:
+						b.append(n);
+				}
+			} else {
+				b.append(c);
+			}
+		}
+		return b.toString();
 	}
 
 	@Override
@@ -137,8 +273,8 @@ public abstract class StringSerializableDataSource extends AbstractDataSource {
 		}
 		model.set(key, value);
 		if(!inTransaction()){
-			//We need to output the model now
-			writeData(dm, serializeModel());
+			//We need to output the change now
+			writeChange(dm, key, value);
 		} else {
 			hasChanges = true;
 		}
@@ -174,9 +310,21 @@ public abstract class StringSerializableDataSource extends AbstractDataSource {
 	}
 
 	@Override
-	public void disconnect() {
+	public void disconnect() throws DataSourceException {
 		// By default, we assume that string based data sources don't need disconnecting.
-		// If this assumption is bad, the subclass can override this method.
+		// If this assumption is bad, the subclass can override this method. If there
+		// is anything in the write-ahead log though, we compact it now, and wait for
+		// that to finish, since the writer thread won't hold the process open. A read-only
+		// source still replays the log when it loads, but must leave both files alone.
+		if (logEntries > 0 && !modifiers.contains(DataSourceModifier.READONLY)) {
+			DaemonManager dm = new DaemonManager();
+			try {
+				writeData(dm, serializeModel());
+				dm.waitForThreads();
+			} catch (IOException | ReadOnlyException | InterruptedException ex) {
+				throw new DataSourceException("Could not compact the data source (" + uri + "): " + ex.getMessage(), ex);
+			}
+		}
 	}
 	
 }
@@ -10,6 +10,9 @@ import java.net.URI;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Wraps a data source, and ensures that it is threadsafe. The static
@@ -18,6 +21,10 @@ import java.util.WeakHashMap;
  * ensure that the data source itself is threadsafe, as incompatible code
  * will be able to bypass restrictions, but all code that uses this class
  * can ensure that amongst those classes, the accesses will be threadsafe.
+ * <p>
+ * Locking is per data source, so a slow read from one source does not block
+ * reads from another. Writes are exclusive, but for data sources that can
+ * safely be read concurrently, reads only take a shared lock.
  */
 public class ThreadsafeDataSource implements DataSource {
 	
@@ -46,123 +53,224 @@ public class ThreadsafeDataSource implements DataSource {
 	}
 	
 	private final DataSource source;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	/**
+	 * The lock that read operations take. This is the shared read lock if
+	 * the source supports concurrent reads, and the exclusive write lock
+	 * otherwise.
+	 */
+	private final Lock readLock;
+	private final Lock writeLock;
+
 	private ThreadsafeDataSource(DataSource source){
 		this.source = source;
+		this.writeLock = lock.writeLock();
+		this.readLock = SupportsConcurrentReads(source) ? lock.readLock() : writeLock;
+	}
+
+	/**
+	 * Returns true if reads from the given data source do not change its state,
+	 * and so may be done concurrently. String serializable data sources keep
+	 * the model in memory, so reads are pure, unless the source is transient,
+	 * in which case every read repopulates the model. Others, like the SQL and
+	 * redis sources, share a single connection, and must be accessed by one
+	 * thread at a time.
+	 * @param source
+	 * @return
+	 */
+	private static boolean SupportsConcurrentReads(DataSource source){
+		return source instanceof StringSerializableDataSource
+				&& !source.hasModifier(DataSourceModifier.TRANSIENT);
 	}
 
 	@Override
-	public synchronized Set<String[]> keySet(String[] keyBase) throws DataSourceException {
-		return source.keySet(keyBase);
+	public Set<String[]> keySet(String[] keyBase) throws DataSourceException {
+		readLock.lock();
+		try {
+			return source.keySet(keyBase);
+		} finally {
+			readLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized Set<String> stringKeySet(String[] keyBase) throws DataSourceException {
-		return source.stringKeySet(keyBase);
+	public Set<String> stringKeySet(String[] keyBase) throws DataSourceException {
+		readLock.lock();
+		try {
+			return source.stringKeySet(keyBase);
+		} finally {
+			readLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized Set<String[]> getNamespace(String[] namespace) throws DataSourceException {
-		return source.getNamespace(namespace);
+	public Set<String[]> getNamespace(String[] namespace) throws DataSourceException {
+		readLock.lock();
+		try {
+			return source.getNamespace(namespace);
+		} finally {
+			readLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized String get(String[] key) throws DataSourceException {
-		return source.get(key);
+	public String get(String[] key) throws DataSourceException {
+		readLock.lock();
+		try {
+			return source.get(key);
+		} finally {
+			readLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized Map<String[], String> getValues(String[] leadKey) throws DataSourceException {
-		return source.getValues(leadKey);
+	public Map<String[], String> getValues(String[] leadKey) throws DataSourceException {
+		readLock.lock();
+		try {
+			return source.getValues(leadKey);
+		} finally {
+			readLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized boolean set(DaemonManager dm, String[] key, String value) throws ReadOnlyException, DataSourceException, IOException, IllegalArgumentException {
-		return source.set(dm, key, value);
+	public boolean set(DaemonManager dm, String[] key, String value) throws ReadOnlyException, DataSourceException, IOException, IllegalArgumentException {
+		writeLock.lock();
+		try {
+			return source.set(dm, key, value);
+		} finally {
+			writeLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized void populate() throws DataSourceException {
-		source.populate();
+	public void populate() throws DataSourceException {
+		writeLock.lock();
+		try {
+			source.populate();
+		} finally {
+			writeLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized void addModifier(DataSourceModifier modifier) {
-		source.addModifier(modifier);
+	public void addModifier(DataSourceModifier modifier) {
+		writeLock.lock();
+		try {
+			source.addModifier(modifier);
+		} finally {
+			writeLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized DataSourceModifier[] implicitModifiers() {
+	public DataSourceModifier[] implicitModifiers() {
 		return source.implicitModifiers();
 	}
 
 	@Override
-	public synchronized DataSourceModifier[] invalidModifiers() {
+	public DataSourceModifier[] invalidModifiers() {
 		return source.invalidModifiers();
 	}
 
 	@Override
-	public synchronized Set<DataSourceModifier> getModifiers() {
-		return source.getModifiers();
+	public Set<DataSourceModifier> getModifiers() {
+		readLock.lock();
+		try {
+			return source.getModifiers();
+		} finally {
+			readLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized boolean hasModifier(DataSourceModifier modifier) {
-		return source.hasModifier(modifier);
+	public boolean hasModifier(DataSourceModifier modifier) {
+		readLock.lock();
+		try {
+			return source.hasModifier(modifier);
+		} finally {
+			readLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized boolean hasKey(String[] key) throws DataSourceException {
-		return source.hasKey(key);
+	public boolean hasKey(String[] key) throws DataSourceException {
+		readLock.lock();
+		try {
+			return source.hasKey(key);
+		} finally {
+			readLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized void clearKey(DaemonManager dm, String[] key) throws DataSourceException, ReadOnlyException, IOException {
-		source.clearKey(dm, key);
+	public void clearKey(DaemonManager dm, String[] key) throws DataSourceException, ReadOnlyException, IOException {
+		writeLock.lock();
+		try {
+			source.clearKey(dm, key);
+		} finally {
+			writeLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized void startTransaction(DaemonManager dm) {
-		source.startTransaction(dm);
+	public void startTransaction(DaemonManager dm) {
+		writeLock.lock();
+		try {
+			source.startTransaction(dm);
+		} finally {
+			writeLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized void stopTransaction(DaemonManager dm, boolean rollback) throws DataSourceException, IOException {
-		source.stopTransaction(dm, rollback);
+	public void stopTransaction(DaemonManager dm, boolean rollback) throws DataSourceException, IOException {
+		writeLock.lock();
+		try {
+			source.stopTransaction(dm, rollback);
+		} finally {
+			writeLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized void disconnect() throws DataSourceException {
-		source.disconnect();
+	public void disconnect() throws DataSourceException {
+		writeLock.lock();
+		try {
+			source.disconnect();
+		} finally {
+			writeLock.unlock();
+		}
 	}
 
 	@Override
-	public synchronized String getName() {
+	public String getName() {
 		return source.getName();
 	}
 
 	@Override
-	public synchronized String docs() {
+	public String docs() {
 		return source.docs();
 	}
 
 	@Override
-	public synchronized Version since() {
+	public Version since() {
 		return source.since();
 	}
 
 	@Override
 	@SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
-	public synchronized boolean equals(Object obj) {
+	public boolean equals(Object obj) {
 		return source.equals(obj);
 	}
 
 	@Override
-	public synchronized int hashCode() {
+	public int hashCode() {
 		return source.hashCode();
 	}
 
 	@Override
-	public synchronized String toString() {
+	public String toString() {
 		return source.toString();
 	}
 	
@@ -18,6 +18,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
 import org.apache.log4j.lf5.util.StreamUtils;
 
 /**
@@ -27,6 +28,14 @@ public class ReadWriteFileConnection implements ConnectionMixin {
 
 	//Do not change the name of this. It is read reflectively during testing
 	protected final File file;
+	/**
+	 * The write-ahead log used by incremental data sources. This sits next to
+	 * the data file, with .wal appended to the name. The first line of the log
+	 * is a header with the checksum of the data file the log applies to, so a
+	 * log that was left behind after the data file was rewritten (if deleting it
+	 * failed, or the process died first) is recognized as stale, and not replayed.
+	 */
+	protected final File log;
 	/**
 	 * The encoding that was determined to be the encoding for this file, if
 	 * set, or UTF-8 by default, if the file doesn't exist.
@@ -35,6 +44,11 @@ public class ReadWriteFileConnection implements ConnectionMixin {
 	protected final ZipReader reader;
 	protected final String blankDataModel;
 	protected final ExecutorService service;
+	/**
+	 * True once the log is known to belong to the current data file. This is only
+	 * used on the executor thread.
+	 */
+	private boolean logChecked = false;
 
 	/**
 	 * The executor service allows for reads and writes to be synchronized.
@@ -65,6 +79,7 @@ public class ReadWriteFileConnection implements ConnectionMixin {
 				file = new File(workingDirectory, path);
 			}
 		}
+		log = new File(file.getPath() + ".wal");
 		if (file.exists()) {
 			encoding = FileUtil.getFileCharset(file);
 		}
@@ -113,8 +128,46 @@ public class ReadWriteFileConnection implements ConnectionMixin {
 				}
 			});
 		}
+		return new String(getBytes(future), encoding);
+	}
+
+	/**
+	 * Gets the contents of the write-ahead log, or an empty string if there is
+	 * no log. Like {@link #getData()}, this is blocking, and any queued writes
+	 * are resolved first.
+	 * @return
+	 * @throws IOException
+	 */
+	public String getLogData() throws IOException {
+		if (reader.isZipped()) {
+			return "";
+		}
+		final Future<byte[]> future;
+		synchronized (service) {
+			future = service.submit(new Callable<byte[]>() {
+
+				@Override
+				public byte[] call() throws Exception {
+					if (!log.exists()) {
+						return new byte[0];
+					}
+					byte[] data = StreamUtils.getBytes(FileUtil.readAsStream(log));
+					if (!IsHeaderFor(data, file)) {
+						//The data file has been written out in full since this log was started,
+						//so it already contains these changes
+						return new byte[0];
+					}
+					return data;
+				}
+			});
+		}
+		return new String(getBytes(future), "UTF-8");
+	}
+
+	@SuppressWarnings("ThrowableResultIgnored")
+	private byte[] getBytes(Future<byte[]> future) throws IOException {
 		try {
-			return new String(future.get(), encoding);
+			return future.get();
 		} catch (InterruptedException ex) {
 			throw new RuntimeException(ex);
 		} catch (ExecutionException ex) {
@@ -145,6 +198,12 @@ public class ReadWriteFileConnection implements ConnectionMixin {
 				public void run() {
 					try {
 						FileUtil.write(data, file);
+						//The full data supersedes anything in the log. Even if the log can't be
+						//deleted, its header no longer matches the data file, so it won't be used.
+						logChecked = false;
+						if (log.exists()) {
+							log.delete();
+						}
 					} catch (IOException ex) {
 						Logger.getLogger(ReadWriteFileConnection.class.getName()).log(Level.SEVERE, null, ex);
 					}
@@ -154,6 +213,68 @@ public class ReadWriteFileConnection implements ConnectionMixin {
 		}
 	}
 
+	/**
+	 * Appends the given entries to the write-ahead log. Like {@link #writeData},
+	 * this is non-blocking, and is ordered with the other reads and writes.
+	 * @param dm
+	 * @param entries
+	 * @throws ReadOnlyException
+	 */
+	public void appendLog(final DaemonManager dm, final String entries) throws ReadOnlyException {
+		if (reader.isZipped()) {
+			throw new ReadOnlyException("Cannot write to a zipped file.");
+		}
+		synchronized (service) {
+			dm.activateThread(null);
+			service.submit(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						if (!logChecked) {
+							//This is the first entry since the connection was made, or the data file was
+							//written out in full. An existing log is only added to if it belongs to the
+							//current data file, otherwise it is stale, and is started over.
+							if (!log.exists() || !IsHeaderFor(StreamUtils.getBytes(FileUtil.readAsStream(log)), file)) {
+								FileUtil.write(GetLogHeader(file), log, FileUtil.OVERWRITE, true);
+							}
+							logChecked = true;
+						}
+						FileUtil.write(entries, log, FileUtil.APPEND, true);
+					} catch (IOException ex) {
+						Logger.getLogger(ReadWriteFileConnection.class.getName()).log(Level.SEVERE, null, ex);
+					}
+					dm.deactivateThread(null);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Returns true if the log data starts with the header for the given data file. A
+	 * log with no header at all, or a partially written one, has no entries anyways.
+	 */
+	private static boolean IsHeaderFor(byte[] logData, File file) throws IOException {
+		String contents = new String(logData, "UTF-8");
+		int end = contents.indexOf('\n');
+		return end != -1 && contents.substring(0, end + 1).equals(GetLogHeader(file));
+	}
+
+	/**
+	 * Returns the header line for a write-ahead log that applies to the given data file,
+	 * which contains the length and CRC32 of the file's contents. While the connection is
+	 * in use, this must only be called from the executor thread.
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static String GetLogHeader(File file) throws IOException {
+		byte[] data = file.exists() ? StreamUtils.getBytes(FileUtil.readAsStream(file)) : new byte[0];
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		return "H\t" + data.length + ":" + Long.toHexString(crc.getValue()) + "\n";
+	}
+
 	@Override
 	public String getPath() throws UnsupportedOperationException, IOException {
 		return file.getCanonicalPath();
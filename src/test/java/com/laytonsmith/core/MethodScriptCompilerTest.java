@@ -98,7 +98,8 @@ public class MethodScriptCompilerTest {
 
         String[] badConfigs = {
             "'\\q'", //Bad escape sequences
-            "'\\m'",};
+            "'\\m'",
+            "'\\u0",}; //Unicode escape cut off by the end of the script
         for (String c : badConfigs) {
             try {
                 MethodScriptCompiler.lex(c, null, false);
@@ -116,4 +116,22 @@ public class TestStatic {
         assertTrue(Static.resolveConstruct("string", Target.UNKNOWN) instanceof CClassType);
     }
 
+    @Test
+    public void testResolveNumberLiterals() {
+        assertEquals(-42, ((CInt) Static.resolveConstruct("-42", Target.UNKNOWN)).getInt());
+        assertEquals(Long.MIN_VALUE, ((CInt) Static.resolveConstruct("-9223372036854775808", Target.UNKNOWN)).getInt());
+        assertEquals(255, ((CInt) Static.resolveConstruct("0xFF", Target.UNKNOWN)).getInt());
+        assertEquals(5, ((CInt) Static.resolveConstruct("0b101", Target.UNKNOWN)).getInt());
+        assertEquals(8, ((CInt) Static.resolveConstruct("0o10", Target.UNKNOWN)).getInt());
+        assertTrue(Static.resolveConstruct("1e3", Target.UNKNOWN) instanceof CDouble);
+        assertTrue(Static.resolveConstruct("1 2", Target.UNKNOWN) instanceof CString);
+        assertTrue(Static.resolveConstruct("0x", Target.UNKNOWN) instanceof CString);
+        try {
+            Static.resolveConstruct("0xFG", Target.UNKNOWN);
+            fail("Expected a FormatException");
+        } catch (ConfigRuntimeException e) {
+            //Expected
+        }
+    }
+
 }
@@ -0,0 +1,131 @@
+package com.laytonsmith.core.constructs;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class CArrayTest {
+
+	private static CArray assoc(String... keys){
+		CArray ca = CArray.GetAssociativeArray(Target.UNKNOWN);
+		for(String key : keys){
+			ca.set(key, key, Target.UNKNOWN);
+		}
+		return ca;
+	}
+
+	@Test
+	public void testAssociativeOrdering(){
+		CArray ca = assoc("b", "10", "a", "-1", "2", "1.5");
+		assertEquals("[1.5, 2, 10, -1, a, b]", ca.stringKeySet().toString());
+		//Once the order is built, it must be maintained as keys are added and removed
+		ca.set("3", "3", Target.UNKNOWN);
+		ca.remove("a");
+		assertEquals("[1.5, 2, 3, 10, -1, b]", ca.stringKeySet().toString());
+	}
+
+	@Test
+	public void testNegativeKeysAreStrings(){
+		CArray ca = assoc("0", "-0", "-10", "-9");
+		//Negative keys aren't numeric, so none of these collapse together
+		assertEquals(4, ca.size());
+		assertEquals("-0", ca.get("-0", Target.UNKNOWN).val());
+		assertEquals("0", ca.get("0", Target.UNKNOWN).val());
+		//And they are ordered as strings
+		assertEquals("[0, -0, -10, -9]", ca.stringKeySet().toString());
+	}
+
+	@Test
+	public void testEquivalentNumericKeys(){
+		CArray ca = assoc("01");
+		ca.set("1.0", "one", Target.UNKNOWN);
+		assertEquals(1, ca.size());
+		assertEquals("one", ca.get(1, Target.UNKNOWN).val());
+		assertTrue(ca.containsKey("1"));
+		//The key is shown as it was first set
+		assertEquals("[01]", ca.stringKeySet().toString());
+		ca.remove("1");
+		assertTrue(ca.isEmpty());
+	}
+
+	@Test
+	public void testCloneIsIndependent(){
+		CArray ca = assoc("a", "b");
+		ca.stringKeySet();
+		CArray clone = ca.clone();
+		clone.set("c", "c", Target.UNKNOWN);
+		clone.remove("a");
+		assertEquals("[a, b]", ca.stringKeySet().toString());
+		assertEquals("[b, c]", clone.stringKeySet().toString());
+	}
+
+	@Test
+	public void testNestedChangesUpdateValue(){
+		CArray inner = new CArray(Target.UNKNOWN);
+		CArray outer = new CArray(Target.UNKNOWN);
+		outer.push(inner);
+		assertEquals("{{}}", outer.val());
+		inner.push(new CInt(1, Target.UNKNOWN));
+		assertEquals("{{1}}", outer.val());
+		//Recursive parents must not loop forever
+		inner.push(outer);
+		assertFalse(outer.val().contains("2"));
+		inner.push(new CInt(2, Target.UNKNOWN));
+		assertTrue(outer.val().contains("2"));
+	}
+
+	@Test
+	public void testKeyView(){
+		CArray ca = assoc("b", "01", "a");
+		assertEquals("[01, a, b]", ca.keyView().toString());
+		ca.remove("a");
+		assertEquals("[01, b]", ca.keyView().toString());
+		CArray normal = new CArray(Target.UNKNOWN, new CInt(5, Target.UNKNOWN), new CInt(6, Target.UNKNOWN));
+		assertEquals("[0, 1]", normal.keyView().toString());
+	}
+
+	@Test
+	public void testSliceKeys(){
+		CSlice slice = new CSlice(5, 7, Target.UNKNOWN);
+		assertEquals("[0, 1, 2]", slice.stringKeySet().toString());
+		assertEquals("[0, 1, 2]", slice.keyView().toString());
+	}
+
+	@Test
+	public void testSortAssociativeTwice(){
+		CArray ca = CArray.GetAssociativeArray(Target.UNKNOWN);
+		ca.set("a", new CInt(3, Target.UNKNOWN), Target.UNKNOWN);
+		ca.set("b", new CInt(1, Target.UNKNOWN), Target.UNKNOWN);
+		ca.set("c", new CInt(2, Target.UNKNOWN), Target.UNKNOWN);
+		ca.sort(CArray.SortType.REGULAR);
+		assertFalse(ca.inAssociativeMode());
+		assertEquals("{1, 2, 3}", ca.val());
+		ca.push(new CInt(0, Target.UNKNOWN));
+		ca.sort(CArray.SortType.NUMERIC);
+		assertEquals("{0, 1, 2, 3}", ca.val());
+		ca.clear();
+		assertTrue(ca.isEmpty());
+	}
+
+	@Test
+	public void testHugeNumericKeys(){
+		StringBuilder b = new StringBuilder();
+		for(int i = 0; i < 400; i++){
+			b.append('9');
+		}
+		String huge1 = b.toString();
+		String huge2 = huge1.substring(1) + "8";
+		CArray ca = assoc("1", "b");
+		ca.stringKeySet();
+		//The order is built now, so these have to be inserted into it
+		ca.set(huge1, huge1, Target.UNKNOWN);
+		ca.set(huge2, huge2, Target.UNKNOWN);
+		assertEquals(4, ca.size());
+		assertEquals("[1, " + huge2 + ", " + huge1 + ", b]", ca.stringKeySet().toString());
+		ca.remove(huge1);
+		assertEquals(3, ca.size());
+		assertTrue(ca.containsKey(huge2));
+	}
+}
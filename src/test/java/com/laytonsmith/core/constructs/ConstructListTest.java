@@ -0,0 +1,58 @@
+package com.laytonsmith.core.constructs;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ConstructListTest {
+
+	@Test
+	public void testUnboxedOperations(){
+		ConstructList list = new ConstructList();
+		for(int i = 5; i > 0; i--){
+			list.add(new CInt(i, Target.UNKNOWN));
+		}
+		list.add(1, new CInt(100, Target.UNKNOWN));
+		list.remove(0);
+		assertEquals("[100, 4, 3, 2, 1]", list.toString());
+		assertTrue(list.sortNumeric());
+		assertEquals("[1, 2, 3, 4, 100]", list.toString());
+		assertTrue(list.get(0) instanceof CInt);
+	}
+
+	@Test
+	public void testMixedValuesAreBoxed(){
+		ConstructList list = new ConstructList();
+		list.add(new CDouble(1.5, Target.UNKNOWN));
+		list.add(new CInt(2, Target.UNKNOWN));
+		CString s = new CString("a", Target.UNKNOWN);
+		list.add(s);
+		assertEquals("[1.5, 2, a]", list.toString());
+		assertSame(s, list.get(2));
+		assertFalse(list.sortNumeric());
+	}
+
+	@Test
+	public void testNonCanonicalValuesAreBoxed(){
+		ConstructList list = new ConstructList();
+		list.add(new CInt(-12, Target.UNKNOWN));
+		CInt padded = new CInt("007", Target.UNKNOWN);
+		list.add(padded);
+		//The padding must survive, so the whole list has to be boxed now
+		assertSame(padded, list.get(1));
+		assertEquals("[-12, 007]", list.toString());
+		assertFalse(list.sortNumeric());
+	}
+
+	@Test
+	public void testCopyIsIndependent(){
+		ConstructList list = new ConstructList();
+		list.add(new CInt(1, Target.UNKNOWN));
+		ConstructList copy = new ConstructList(list);
+		copy.set(0, new CInt(2, Target.UNKNOWN));
+		assertEquals("[1]", list.toString());
+		assertEquals("[2]", copy.toString());
+	}
+}
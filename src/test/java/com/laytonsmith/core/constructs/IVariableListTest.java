@@ -0,0 +1,38 @@
+package com.laytonsmith.core.constructs;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class IVariableListTest {
+
+	private static IVariable var(String name, long value){
+		return new IVariable(CClassType.AUTO, name, new CInt(value, Target.UNKNOWN), Target.UNKNOWN);
+	}
+
+	@Test
+	public void testCloneIsIndependent(){
+		IVariableList original = new IVariableList();
+		original.set(var("@a", 1));
+		IVariableList clone = original.clone();
+		clone.set(var("@a", 2));
+		clone.set(var("@b", 3));
+		assertEquals("1", original.get("@a", Target.UNKNOWN).val());
+		assertFalse(original.has("@b"));
+		assertEquals("2", clone.get("@a", Target.UNKNOWN).val());
+		assertTrue(clone.has("@b"));
+	}
+
+	@Test
+	public void testOriginalWriteAfterClone(){
+		IVariableList original = new IVariableList();
+		original.set(var("@a", 1));
+		IVariableList clone = original.clone();
+		original.set(var("@a", 2));
+		original.remove("@a");
+		assertFalse(original.has("@a"));
+		assertEquals("1", clone.get("@a", Target.UNKNOWN).val());
+	}
+}
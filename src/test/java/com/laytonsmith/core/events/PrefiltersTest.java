@@ -150,4 +150,39 @@ public class PrefiltersTest {
         } catch (PrefilterNonMatchException e) {
         }
     }
+
+    @Test public void testCompiledPrefilters(){
+        Map<String, Construct> map = new HashMap<String, Construct>();
+        map.put("x", C.String("(x > 4)"));
+        map.put("y", C.String("/a+b/"));
+        map.put("z", C.String("35:2"));
+        Map<String, Construct> compiled = new Prefilters.CompiledPrefilters(map);
+        //Run each one twice, to make sure the cached forms give the same answer
+        for(int i = 0; i < 2; i++){
+            try {
+                Prefilters.match(compiled, "x", "5", PrefilterType.EXPRESSION);
+                Prefilters.match(compiled, "y", "aaab", PrefilterType.MACRO);
+                Prefilters.match(compiled, "z", "35:4", PrefilterType.ITEM_MATCH);
+            } catch (PrefilterNonMatchException e) {
+                fail("Expected a match here");
+            }
+            try {
+                Prefilters.match(compiled, "x", "4", PrefilterType.EXPRESSION);
+                fail("Did not expect a match here");
+            } catch (PrefilterNonMatchException e) {
+            }
+            try {
+                Prefilters.match(compiled, "y", "ab c", PrefilterType.REGEX);
+                fail("Did not expect a match here");
+            } catch (PrefilterNonMatchException e) {
+            }
+        }
+        //Changing the value after the fact should be noticed
+        compiled.put("x", C.String("(x < 4)"));
+        try {
+            Prefilters.match(compiled, "x", "3", PrefilterType.EXPRESSION);
+        } catch (PrefilterNonMatchException e) {
+            fail("Expected a match here");
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package com.laytonsmith.core.functions;
+
+import com.laytonsmith.core.constructs.Target;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.TimeZone;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class SchedulingTest {
+
+	TimeZone defaultZone;
+	SimpleDateFormat format;
+
+	@Before
+	public void setUp() {
+		//Cron formats are in local time, so pin it to a zone with daylight savings
+		defaultZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+		format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+	}
+
+	@After
+	public void tearDown() {
+		TimeZone.setDefault(defaultZone);
+	}
+
+	private long time(String date) throws ParseException {
+		return format.parse(date).getTime();
+	}
+
+	private long next(String cron, String after) throws ParseException {
+		return new Scheduling.set_cron().validateFormat(cron, Target.UNKNOWN).getNextRunTime(time(after));
+	}
+
+	@Test
+	public void testEveryMinute() throws Exception {
+		assertEquals(time("2015-03-10 10:16:00.000"), next("* * * * *", "2015-03-10 10:15:30.500"));
+		//A run exactly on the minute is in the past, so the next one is a minute later
+		assertEquals(time("2015-03-10 10:17:00.000"), next("* * * * *", "2015-03-10 10:16:00.000"));
+	}
+
+	@Test
+	public void testDayOfWeekAndDayOfMonth() throws Exception {
+		//Both have to match, so this is Friday the 13th
+		assertEquals(time("2015-02-13 12:00:00.000"), next("0 12 13 * fri", "2015-01-01 00:00:00.000"));
+	}
+
+	@Test
+	public void testImpossibleDate() throws Exception {
+		assertEquals(-1, next("0 0 30 feb *", "2015-01-01 00:00:00.000"));
+	}
+
+	@Test
+	public void testLeapDay() throws Exception {
+		assertEquals(time("2016-02-29 00:00:00.000"), next("0 0 29 2 *", "2015-01-01 00:00:00.000"));
+	}
+
+	@Test
+	public void testDaylightSavings() throws Exception {
+		//2:30 doesn't exist on March 8th, 2015 in New York, so that day is skipped
+		assertEquals(time("2015-03-09 02:30:00.000"), next("30 2 * * *", "2015-03-07 03:00:00.000"));
+		//But the hour after the jump still runs that day
+		assertEquals(time("2015-03-08 03:00:00.000"), next("0 3 * * *", "2015-03-07 03:00:00.000"));
+	}
+}
@@ -0,0 +1,32 @@
+package com.laytonsmith.core.profiler;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ProfileHistogramTest {
+
+	@Test
+	public void testPercentilesAreApproximatelyRight(){
+		ProfileHistogram h = new ProfileHistogram();
+		for(int i = 1; i <= 1000; i++){
+			h.record(i * 1000L);
+		}
+		assertEquals(1000, h.getCount());
+		assertEquals(500500000L, h.getTotal());
+		assertEquals(1000000L, h.getMax());
+		assertEquals(500000, h.getPercentile(0.5), 500000 * 0.125);
+		assertEquals(990000, h.getPercentile(0.99), 990000 * 0.125);
+	}
+
+	@Test
+	public void testBucketsContainTheirMiddle(){
+		for(long n = 1; n < 1L << 40; n = n * 3 + 1){
+			int bucket = ProfileHistogram.bucket(n);
+			assertEquals(bucket, ProfileHistogram.bucket(ProfileHistogram.bucketMiddle(bucket)));
+		}
+		assertTrue(ProfileHistogram.bucket(Long.MAX_VALUE) < 256);
+	}
+}
@@ -0,0 +1,144 @@
+package com.laytonsmith.persistence;
+
+import com.laytonsmith.PureUtilities.Common.StringUtils;
+import com.laytonsmith.PureUtilities.DaemonManager;
+import com.laytonsmith.core.CHVersion;
+import java.io.File;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the statement cache and write batching in SQLDataSource, against a SQLite database.
+ */
+public class SQLDataSourceTest {
+
+	private static final File DB = new File("folder/sqldatasource.db");
+	private static final String INSERT = "INSERT OR REPLACE INTO `test` (`key`, `value`) VALUES (?, ?)";
+
+	/**
+	 * A minimal SQLDataSource. Only the SQL itself is defined here, the writes, batching and
+	 * reads go through the same SQLDataSource code that MySQLDataSource uses.
+	 */
+	private static class TestSQLDataSource extends SQLDataSource {
+
+		@Override
+		protected String getTable() {
+			return "test";
+		}
+
+		@Override
+		protected String getConnectionString() {
+			return "jdbc:sqlite:" + DB.getPath();
+		}
+
+		@Override
+		protected boolean set0(DaemonManager dm, String[] key, String value) throws ReadOnlyException, DataSourceException, IOException {
+			try {
+				connect();
+				PreparedStatement statement = prepare(INSERT);
+				statement.setString(1, StringUtils.Join(key, "."));
+				statement.setString(2, value);
+				executeWrite(statement);
+				return true;
+			} catch(SQLException ex){
+				throw new DataSourceException(ex.getMessage(), ex);
+			}
+		}
+
+		@Override
+		protected String get0(String[] key) throws DataSourceException {
+			for(Map.Entry<String[], String> entry : getValues0(key).entrySet()){
+				if(Arrays.equals(key, entry.getKey())){
+					return entry.getValue();
+				}
+			}
+			return null;
+		}
+
+		@Override
+		protected void startTransaction0(DaemonManager dm) {
+			//Batching only depends on inTransaction()
+		}
+
+		@Override
+		protected void stopTransaction0(DaemonManager dm, boolean rollback) throws DataSourceException, IOException {
+			try {
+				endBatch(rollback);
+			} catch(SQLException ex){
+				throw new DataSourceException(ex.getMessage(), ex);
+			}
+		}
+
+		@Override
+		public String docs() {
+			return "";
+		}
+
+		@Override
+		public CHVersion since() {
+			return CHVersion.V0_0_0;
+		}
+	}
+
+	TestSQLDataSource ds;
+	DaemonManager dm;
+
+	@Before
+	public void setUp() throws Exception {
+		TestPersistence.deleteFiles("folder/");
+		DB.getParentFile().mkdirs();
+		Class.forName("org.sqlite.JDBC");
+		ds = new TestSQLDataSource();
+		ds.connect();
+		try(Statement statement = ds.getConnection().createStatement()){
+			statement.executeUpdate("CREATE TABLE `test` (`key` TEXT PRIMARY KEY, `value` TEXT)");
+		}
+		dm = new DaemonManager();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ds.disconnect();
+		TestPersistence.deleteFiles("folder/");
+	}
+
+	@Test
+	public void testStatementsAreCachedPerConnection() throws Exception {
+		PreparedStatement statement = ds.prepare(INSERT);
+		assertSame(statement, ds.prepare(INSERT));
+		ds.disconnect();
+		ds.connect();
+		assertNotSame(statement, ds.prepare(INSERT));
+	}
+
+	@Test
+	public void testReadsSeeBatchedWrites() throws Exception {
+		ds.startTransaction(dm);
+		ds.set(dm, new String[]{"a", "b"}, "one");
+		ds.set(dm, new String[]{"a", "c"}, "two");
+		//Nothing has been sent yet, but the read has to flush the batch first
+		assertEquals("one", ds.get(new String[]{"a", "b"}));
+		assertEquals(2, ds.keySet(new String[]{"a"}).size());
+		ds.stopTransaction(dm, false);
+		assertEquals("two", ds.get(new String[]{"a", "c"}));
+	}
+
+	@Test
+	public void testRollbackDiscardsBatchedWrites() throws Exception {
+		ds.startTransaction(dm);
+		ds.set(dm, new String[]{"a", "b"}, "one");
+		ds.stopTransaction(dm, true);
+		assertNull(ds.get(new String[]{"a", "b"}));
+	}
+}
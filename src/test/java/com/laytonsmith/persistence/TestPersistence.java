@@ -141,6 +141,13 @@ public class TestPersistence {
 		assertEquals("yml://yes.yml", getConnection("a.b.c.d", "a.b.c.*=yml://yes.yml", "a.b.**=yml://no.yml"));
 	}
 
+	@Test
+	public void testMatch4() throws Exception {
+		assertEquals("yml://yes.yml", getConnection("a.x.y.d", "a.**.d=yml://yes.yml", "a.*=yml://no.yml"));
+		assertEquals("yml://yes.yml", getConnection("a.xyz", "a.x*z=yml://yes.yml", "a.*=yml://no.yml"));
+		assertEquals("", getConnection("a.d", "a.**.d=yml://no.yml"));
+	}
+
 	@Test
 	public void testMultimatch1() throws Exception {
 		assertEquals(getSet("default", "yml://yes.yml"), getConnections("a.b.c", "a.**=yml://yes.yml"));
@@ -198,6 +205,58 @@ public class TestPersistence {
 		deleteFiles("folder/");
 	}
 
+	@Test
+	public void testIncremental() throws Exception{
+		String uri = "incremental:json://folder/incremental.json";
+		File file = new File("folder/incremental.json");
+		File log = new File("folder/incremental.json.wal");
+		DataSource ds = DataSourceFactory.GetDataSource(uri, options);
+		ds.set(dm, new String[]{"key1"}, "value1");
+		ds.set(dm, new String[]{"key2"}, "value\t2\n");
+		ds.clearKey(dm, new String[]{"key1"});
+		dm.waitForThreads();
+		//The changes should only have gone to the log so far
+		assertTrue(log.exists());
+		assertFalse(FileUtil.read(file).contains("value"));
+		//Disconnecting compacts the log into the file
+		DataSourceFactory.DisconnectAll();
+		assertFalse(log.exists());
+		assertTrue(FileUtil.read(file).contains("key2"));
+		//A log left over from before should be replayed when the data is loaded
+		String header = ReadWriteFileConnection.GetLogHeader(file);
+		FileUtil.write(header + "S\tkey3\tvalue3\nC\tkey2\nS\tkey4", log, FileUtil.OVERWRITE, true);
+		ds = DataSourceFactory.GetDataSource(uri, options);
+		assertEquals("value3", ds.get(new String[]{"key3"}));
+		assertFalse(ds.hasKey(new String[]{"key2"}));
+		//Partially written entries are ignored
+		assertFalse(ds.hasKey(new String[]{"key4"}));
+		DataSourceFactory.DisconnectAll();
+		//If the file was written out in full, but the log wasn't deleted, the log is stale,
+		//and replaying it would undo the later changes
+		assertFalse(log.exists());
+		FileUtil.write(header + "S\tkey3\tstale\n", log, FileUtil.OVERWRITE, true);
+		ds = DataSourceFactory.GetDataSource(uri, options);
+		assertEquals("value3", ds.get(new String[]{"key3"}));
+		DataSourceFactory.DisconnectAll();
+		deleteFiles("folder/");
+	}
+
+	@Test
+	public void testReadOnlyDoesNotCompact() throws Exception{
+		File file = new File("folder/readonly.json");
+		File log = new File("folder/readonly.json.wal");
+		FileUtil.write("{\"key1\":\"value1\"}", file, FileUtil.OVERWRITE, true);
+		FileUtil.write(ReadWriteFileConnection.GetLogHeader(file) + "S\tkey2\tvalue2\n", log, FileUtil.OVERWRITE, true);
+		DataSource ds = DataSourceFactory.GetDataSource("readonly:json://folder/readonly.json", options);
+		//The log is still replayed, so the source sees the latest values
+		assertEquals("value2", ds.get(new String[]{"key2"}));
+		DataSourceFactory.DisconnectAll();
+		//But disconnecting must not write to a read-only source
+		assertTrue(log.exists());
+		assertFalse(FileUtil.read(file).contains("value2"));
+		deleteFiles("folder/");
+	}
+
 	@Test
 	public void testSer() throws Exception{
 		//This is hard to test, since it's binary data. Instead, we just check for the file's existance, and to see if